@@ -0,0 +1,70 @@
+import java.awt.*;
+import java.time.*;
+import java.time.format.*;
+import javax.swing.*;
+
+// Class for the dialog showing the busy-time heatmap of a month or quarter
+class BusyOverviewDialog extends JDialog {
+    private BusyOverviewView overviewView;
+    private JComboBox<String> periodBox;
+    private JLabel periodLabel;
+    private LocalDate periodStart;
+
+    public BusyOverviewDialog(ScheduleManager owner, WorkingHoursRules workingHours, LocalDate shownMonday) {
+        super(owner, "Busy Overview", true);
+        this.overviewView = new BusyOverviewView(workingHours, owner);
+        this.periodStart = shownMonday.withDayOfMonth(1);
+        setUserInterface();
+        showPeriod();
+        setLocationRelativeTo(getOwner());
+    }
+
+    // Set the user interface for the dialog
+    private void setUserInterface() {
+        JPanel contentPanel = new JPanel(new BorderLayout(10, 10));
+        contentPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        periodBox = new JComboBox<>(new String[] {"Month", "Quarter"});
+        periodBox.addActionListener(e -> showPeriod());
+        JButton previousButton = new JButton("<");
+        previousButton.addActionListener(e -> {
+            periodStart = periodStart.minusMonths(periodMonths());
+            showPeriod();
+        });
+        JButton nextButton = new JButton(">");
+        nextButton.addActionListener(e -> {
+            periodStart = periodStart.plusMonths(periodMonths());
+            showPeriod();
+        });
+        periodLabel = new JLabel();
+
+        JPanel controlPanel = new JPanel();
+        controlPanel.add(previousButton);
+        controlPanel.add(periodLabel);
+        controlPanel.add(nextButton);
+        controlPanel.add(periodBox);
+        contentPanel.add(controlPanel, BorderLayout.NORTH);
+        contentPanel.add(new JScrollPane(overviewView), BorderLayout.CENTER);
+
+        add(contentPanel);
+    }
+
+    // Show the month or quarter starting at periodStart
+    private void showPeriod() {
+        boolean quarter = periodMonths() == 3;
+        if (quarter) {
+            periodStart = periodStart.withMonth((periodStart.getMonthValue() - 1) / 3 * 3 + 1);
+        }
+        LocalDate periodEnd = periodStart.plusMonths(periodMonths()).minusDays(1);
+
+        periodLabel.setText(quarter
+            ? "Q" + ((periodStart.getMonthValue() - 1) / 3 + 1) + " " + periodStart.getYear()
+            : periodStart.format(DateTimeFormatter.ofPattern("MMMM yyyy")));
+        overviewView.showRange(periodStart, periodEnd);
+        pack();
+    }
+
+    private int periodMonths() {
+        return periodBox.getSelectedIndex() == 1 ? 3 : 1;
+    }
+}
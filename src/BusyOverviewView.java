@@ -0,0 +1,147 @@
+import java.awt.*;
+import java.awt.event.*;
+import java.time.*;
+import java.time.format.*;
+import java.util.*;
+import javax.swing.*;
+
+// Class to display a month or quarter as a heatmap of the booked time per day and hour band
+class BusyOverviewView extends JPanel {
+    private static final int DAY_WIDTH = 120;
+    private static final int HEADER_HEIGHT = 25;
+    private static final int DATE_HEIGHT = 18;
+    private static final int BAND_HEIGHT = 12;
+    private static final int BAND_HOURS = 2;
+    private static final Color FREE_COLOR = Color.WHITE;
+    private static final Color BUSY_COLOR = new Color(200, 30, 30);
+
+    private WorkingHoursRules workingHours;
+    private ScheduleManager mainFrame;
+    private LocalDate firstDay;
+    private LocalDate lastDay;
+    private int firstHour;
+    private int bandCount;
+
+    public BusyOverviewView(WorkingHoursRules workingHours, ScheduleManager mainFrame) {
+        this.workingHours = workingHours;
+        this.mainFrame = mainFrame;
+        this.firstHour = workingHours.earliestHour();
+        this.bandCount = (workingHours.latestHour() - firstHour + BAND_HOURS - 1) / BAND_HOURS;
+
+        // To open the weekly view of the clicked day
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                LocalDate date = findDateAt(e.getX(), e.getY());
+                if (date != null) {
+                    SwingUtilities.getWindowAncestor(BusyOverviewView.this).dispose();
+                    mainFrame.showWeekOf(date);
+                }
+            }
+        });
+
+        ToolTipManager.sharedInstance().registerComponent(this);
+    }
+
+    // To show the days from the first to the last day, both included
+    public void showRange(LocalDate firstDay, LocalDate lastDay) {
+        this.firstDay = firstDay;
+        this.lastDay = lastDay;
+        setPreferredSize(new Dimension(DAY_WIDTH * 7, HEADER_HEIGHT + weekCount() * rowHeight()));
+        revalidate();
+        repaint();
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent e) {
+        LocalDate date = findDateAt(e.getX(), e.getY());
+        if (date == null) return null;
+        return String.format("<html>%s<br>Booked: %s</html>",
+            date.format(DateTimeFormatter.ofPattern("EEEE, MMMM d, yyyy")),
+            formatMinutes(mainFrame.busyMinutes(date, 0, 24)));
+    }
+
+    // Paint every day once, each cell only reads the pre-aggregated minutes of the live schedule or the archive
+    @Override
+    protected void paintComponent(Graphics comp) {
+        super.paintComponent(comp);
+        if (firstDay == null) return;
+        Graphics2D grid = (Graphics2D) comp;
+
+        grid.setColor(new Color(240, 240, 240));
+        grid.fillRect(0, 0, DAY_WIDTH * 7, HEADER_HEIGHT);
+        grid.setColor(Color.BLACK);
+        grid.setFont(new Font("Arial", Font.BOLD, 12));
+        for (int i = 0; i < 7; i++) {
+            String dayName = DayOfWeek.of(i + 1).getDisplayName(TextStyle.SHORT, Locale.getDefault());
+            grid.drawString(dayName, i * DAY_WIDTH + 5, 17);
+        }
+
+        Font dateFont = new Font("Arial", Font.PLAIN, 10);
+        grid.setFont(dateFont);
+        LocalDate firstMonday = ScheduleManager.mondayOf(firstDay);
+        for (LocalDate date = firstDay; !date.isAfter(lastDay); date = date.plusDays(1)) {
+            int week = (int) ((date.toEpochDay() - firstMonday.toEpochDay()) / 7);
+            int x = (date.getDayOfWeek().getValue() - 1) * DAY_WIDTH;
+            int y = HEADER_HEIGHT + week * rowHeight();
+            drawDay(grid, date, x, y);
+        }
+    }
+
+    // To draw the date, the total and one strip per hour band of a day
+    private void drawDay(Graphics2D grid, LocalDate date, int x, int y) {
+        grid.setColor(Color.BLACK);
+        String label = date.format(DateTimeFormatter.ofPattern("MM/dd"));
+        int total = mainFrame.busyMinutes(date, 0, 24);
+        if (total > 0) {
+            label += "  " + formatMinutes(total);
+        }
+        grid.drawString(label, x + 5, y + 13);
+
+        for (int band = 0; band < bandCount; band++) {
+            int fromHour = firstHour + band * BAND_HOURS;
+            int bandY = y + DATE_HEIGHT + band * BAND_HEIGHT;
+            // A band is scored against the minutes that can be booked in it, so a partly open band can fill up
+            int workingMinutes = workingHours.workingMinutes(date, fromHour * 60, (fromHour + BAND_HOURS) * 60);
+            if (workingMinutes == 0) {
+                grid.setColor(new Color(230, 230, 230));
+            } else {
+                double load = mainFrame.busyMinutes(date, fromHour, fromHour + BAND_HOURS) / (double) workingMinutes;
+                grid.setColor(blend(load));
+            }
+            grid.fillRect(x + 2, bandY, DAY_WIDTH - 4, BAND_HEIGHT - 1);
+        }
+
+        grid.setColor(new Color(200, 200, 200));
+        grid.drawRect(x, y, DAY_WIDTH, rowHeight());
+    }
+
+    private LocalDate findDateAt(int x, int y) {
+        if (firstDay == null || y < HEADER_HEIGHT || x < 0 || x >= DAY_WIDTH * 7) return null;
+        int week = (y - HEADER_HEIGHT) / rowHeight();
+        int day = x / DAY_WIDTH;
+        LocalDate date = ScheduleManager.mondayOf(firstDay).plusWeeks(week).plusDays(day);
+        return date.isBefore(firstDay) || date.isAfter(lastDay) ? null : date;
+    }
+
+    private int weekCount() {
+        LocalDate firstMonday = ScheduleManager.mondayOf(firstDay);
+        return (int) ((lastDay.toEpochDay() - firstMonday.toEpochDay()) / 7) + 1;
+    }
+
+    private int rowHeight() {
+        return DATE_HEIGHT + bandCount * BAND_HEIGHT + 4;
+    }
+
+    private static Color blend(double load) {
+        double t = Math.max(0, Math.min(1, load));
+        return new Color(
+            (int) (FREE_COLOR.getRed() + (BUSY_COLOR.getRed() - FREE_COLOR.getRed()) * t),
+            (int) (FREE_COLOR.getGreen() + (BUSY_COLOR.getGreen() - FREE_COLOR.getGreen()) * t),
+            (int) (FREE_COLOR.getBlue() + (BUSY_COLOR.getBlue() - FREE_COLOR.getBlue()) * t));
+    }
+
+    private static String formatMinutes(int minutes) {
+        return String.format("%dh %02dm", minutes / 60, minutes % 60);
+    }
+}
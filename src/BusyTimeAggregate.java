@@ -0,0 +1,94 @@
+import java.time.*;
+import java.util.*;
+
+// Class keeping the booked minutes of every day, updated as events change
+class BusyTimeAggregate {
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final Map<LocalDate, DayLoad> days = new HashMap<>();
+    // Times each event was counted with, needed to take it out again after an in-place edit
+    private final Map<ScheduleEvent, LocalDateTime[]> counted = new IdentityHashMap<>();
+
+    public void addAll(Collection<ScheduleEvent> events) {
+        for (ScheduleEvent event : events) {
+            add(event);
+        }
+    }
+
+    public void add(ScheduleEvent event) {
+        LocalDateTime[] previous = counted.put(event,
+            new LocalDateTime[] { event.getStartTime(), event.getEndTime() });
+        if (previous != null) {
+            apply(previous[0], previous[1], -1);
+        }
+        apply(event.getStartTime(), event.getEndTime(), 1);
+    }
+
+    // Events are edited in place, so an update swaps the counted times for the new ones
+    public void update(ScheduleEvent event) {
+        add(event);
+    }
+
+    public void remove(ScheduleEvent event) {
+        LocalDateTime[] previous = counted.remove(event);
+        if (previous != null) {
+            apply(previous[0], previous[1], -1);
+        }
+    }
+
+    // Minutes of the date covered by at least one event
+    public int busyMinutes(LocalDate date) {
+        return busyMinutes(date, 0, 24);
+    }
+
+    // Minutes between the two hours of the date covered by at least one event
+    public int busyMinutes(LocalDate date, int fromHour, int toHour) {
+        DayLoad day = days.get(date);
+        if (day == null) return 0;
+        return day.hourPrefix[Math.min(24, toHour)] - day.hourPrefix[Math.max(0, fromHour)];
+    }
+
+    // Add or take away one event between start and end, split over the days it touches
+    private void apply(LocalDateTime start, LocalDateTime end, int delta) {
+        LocalDateTime from = start;
+        while (from.isBefore(end)) {
+            LocalDate date = from.toLocalDate();
+            LocalDateTime dayEnd = date.plusDays(1).atStartOfDay();
+            LocalDateTime to = end.isBefore(dayEnd) ? end : dayEnd;
+
+            DayLoad day = days.computeIfAbsent(date, d -> new DayLoad());
+            int fromMinute = from.getHour() * 60 + from.getMinute();
+            int toMinute = to.equals(dayEnd) ? MINUTES_PER_DAY : to.getHour() * 60 + to.getMinute();
+            day.apply(fromMinute, toMinute, delta);
+            if (day.isEmpty()) {
+                days.remove(date);
+            }
+            from = to;
+        }
+    }
+
+    // Coverage count per minute and prefix sums of the booked minutes per hour for one day
+    private static class DayLoad {
+        private final short[] coverage = new short[MINUTES_PER_DAY];
+        private final int[] hourPrefix = new int[25];
+
+        void apply(int fromMinute, int toMinute, int delta) {
+            int[] changed = new int[24];
+            for (int minute = fromMinute; minute < toMinute; minute++) {
+                int before = coverage[minute];
+                coverage[minute] += delta;
+                if (before == 0 && coverage[minute] > 0) changed[minute / 60]++;
+                if (before > 0 && coverage[minute] == 0) changed[minute / 60]--;
+            }
+            int running = 0;
+            for (int hour = 0; hour < 24; hour++) {
+                running += changed[hour];
+                hourPrefix[hour + 1] += running;
+            }
+        }
+
+        boolean isEmpty() {
+            return hourPrefix[24] == 0;
+        }
+    }
+}
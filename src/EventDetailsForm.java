@@ -202,13 +202,14 @@ class EventDetailsForm extends JDialog {
 
             // Create new event
             if (originalEvent != null) {
+                ScheduleEvent previous = new ScheduleEvent(originalEvent);
                 originalEvent.setName(name);
                 originalEvent.setLocation(location);
                 originalEvent.setStartTime(startDateTime);
                 originalEvent.setEndTime(endDateTime);
                 originalEvent.setColor(color);
                 result = originalEvent;
-                scheduleManager.updateEvent(result);
+                scheduleManager.updateEvent(result, previous);
             } else {
                 result = new ScheduleEvent(name, location, startDateTime, endDateTime, color);
                 scheduleManager.addNewEvent(result);
@@ -0,0 +1,149 @@
+import java.awt.*;
+import java.awt.event.*;
+import java.time.format.*;
+import javax.swing.*;
+import javax.swing.event.*;
+
+// Class for the dialog to search events by name or location
+class EventSearchDialog extends JDialog {
+    // Only this many results are listed, refining the query narrows them down
+    private static final int MAX_RESULTS = 500;
+
+    private ScheduleManager scheduleManager;
+    private EventSearchIndex searchIndex;
+    // Archived weeks that are not loaded, indexed only while the dialog is open
+    private EventSearchIndex archiveIndex;
+    private JTextField queryField;
+    private DefaultListModel<ScheduleEvent> model;
+    private JList<ScheduleEvent> resultList;
+    private JLabel statusLabel;
+
+    public EventSearchDialog(ScheduleManager owner, EventSearchIndex searchIndex) {
+        super(owner, "Search Events", true);
+        this.scheduleManager = owner;
+        this.searchIndex = searchIndex;
+        setUserInterface();
+    }
+
+    // Set the user interface for the dialog
+    private void setUserInterface() {
+        JPanel contentPanel = new JPanel(new BorderLayout(10, 10));
+        contentPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        queryField = new JTextField(32);
+        queryField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { runSearch(); }
+            @Override
+            public void removeUpdate(DocumentEvent e) { runSearch(); }
+            @Override
+            public void changedUpdate(DocumentEvent e) { runSearch(); }
+        });
+        queryField.addActionListener(e -> openSelected());
+
+        JPanel queryPanel = new JPanel(new BorderLayout(5, 5));
+        queryPanel.add(new JLabel("Name or location:"), BorderLayout.WEST);
+        queryPanel.add(queryField, BorderLayout.CENTER);
+        contentPanel.add(queryPanel, BorderLayout.NORTH);
+
+        model = new DefaultListModel<>();
+        resultList = new JList<>(model);
+        resultList.setCellRenderer(new SearchResultDisplay());
+        resultList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    openSelected();
+                }
+            }
+        });
+        contentPanel.add(new JScrollPane(resultList), BorderLayout.CENTER);
+
+        statusLabel = new JLabel(" ");
+        JButton archiveButton = new JButton("Include Archived Weeks");
+        archiveButton.addActionListener(e -> {
+            archiveIndex = scheduleManager.indexArchivedWeeks();
+            archiveButton.setEnabled(false);
+            runSearch();
+        });
+
+        JPanel statusPanel = new JPanel(new BorderLayout(5, 5));
+        statusPanel.add(statusLabel, BorderLayout.CENTER);
+        statusPanel.add(archiveButton, BorderLayout.EAST);
+        contentPanel.add(statusPanel, BorderLayout.SOUTH);
+
+        add(contentPanel);
+        setSize(500, 400);
+        setLocationRelativeTo(getOwner());
+    }
+
+    // Refresh the results for the current query
+    private void runSearch() {
+        model.clear();
+        String query = queryField.getText();
+        if (query.trim().isEmpty()) {
+            statusLabel.setText(" ");
+            return;
+        }
+        // One more than shown, to tell if the list was cut off
+        java.util.List<ScheduleEvent> results = searchIndex.search(query, MAX_RESULTS + 1);
+        if (archiveIndex != null) {
+            results = mergeByStartTime(results, archiveIndex.search(query, MAX_RESULTS + 1));
+        }
+        if (results.size() > MAX_RESULTS) {
+            model.addAll(results.subList(0, MAX_RESULTS));
+            statusLabel.setText("Showing the first " + MAX_RESULTS + " events, refine the search to see more");
+        } else {
+            model.addAll(results);
+            statusLabel.setText(model.size() + " event(s) found");
+        }
+        if (!model.isEmpty()) {
+            resultList.setSelectedIndex(0);
+        }
+    }
+
+    // Merge two result lists that are both in start time order, keeping at most MAX_RESULTS + 1
+    private static java.util.List<ScheduleEvent> mergeByStartTime(
+            java.util.List<ScheduleEvent> first, java.util.List<ScheduleEvent> second) {
+        java.util.List<ScheduleEvent> merged = new java.util.ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (merged.size() <= MAX_RESULTS && (i < first.size() || j < second.size())) {
+            if (j == second.size() || (i < first.size()
+                    && !first.get(i).getStartTime().isAfter(second.get(j).getStartTime()))) {
+                merged.add(first.get(i++));
+            } else {
+                merged.add(second.get(j++));
+            }
+        }
+        return merged;
+    }
+
+    // Jump the calender view to the week of the selected result
+    private void openSelected() {
+        ScheduleEvent selected = resultList.getSelectedValue();
+        if (selected != null) {
+            dispose();
+            scheduleManager.showWeekOf(selected.getStartTime().toLocalDate());
+        }
+    }
+
+    // Search results span many weeks, so prefix the date to the usual list text
+    private static class SearchResultDisplay extends EventListDisplay {
+        private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd EEE");
+
+        @Override
+        public Component getListCellRendererComponent(
+                JList<?> list, Object value, int index,
+                boolean isSelected, boolean cellHasFocus) {
+
+            super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+
+            if (value instanceof ScheduleEvent event) {
+                setText(event.getStartTime().format(DATE_FORMAT) + "  " + getText());
+            }
+
+            return this;
+        }
+    }
+}
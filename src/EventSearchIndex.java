@@ -0,0 +1,254 @@
+import java.time.*;
+import java.util.*;
+
+// Class for an in-memory full-text index over event names and locations
+class EventSearchIndex {
+    private static final int GRAM_LENGTH = 3;
+
+    // Posting lists keyed by trigram, or by "^" plus a short word prefix
+    private final Map<String, Posting> postings = new HashMap<>();
+    // Entry each event was indexed with, needed to remove it again after an in-place edit
+    private final Map<ScheduleEvent, Entry> indexed = new IdentityHashMap<>();
+    private long nextSequence;
+
+    // Bulk adds append to the posting lists and sort each touched list once at the end,
+    // so no search has to sort a list first
+    public void addAll(Collection<ScheduleEvent> events) {
+        Set<Posting> touched = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (ScheduleEvent event : events) {
+            Entry entry = reindex(event);
+            if (entry == null) continue;
+            for (String key : keysOf(entry.text)) {
+                Posting posting = postings.computeIfAbsent(key, k -> new Posting());
+                posting.append(entry);
+                touched.add(posting);
+            }
+        }
+        for (Posting posting : touched) {
+            posting.sort();
+        }
+    }
+
+    public void add(ScheduleEvent event) {
+        Entry entry = reindex(event);
+        if (entry == null) return;
+        for (String key : keysOf(entry.text)) {
+            postings.computeIfAbsent(key, k -> new Posting()).insert(entry);
+        }
+    }
+
+    // The new entry of an event, or null when it is indexed with the same text and start time already
+    private Entry reindex(ScheduleEvent event) {
+        String text = normalize(event.getName()) + "\n" + normalize(event.getLocation());
+        Entry previous = indexed.get(event);
+        if (previous != null && previous.text.equals(text)
+                && previous.startTime.equals(event.getStartTime())) {
+            return null;
+        }
+        remove(event);
+        Entry entry = new Entry(event, text, nextSequence++);
+        indexed.put(event, entry);
+        return entry;
+    }
+
+    // Events are edited in place, so an update re-indexes the new text and start time
+    public void update(ScheduleEvent event) {
+        add(event);
+    }
+
+    public void remove(ScheduleEvent event) {
+        Entry entry = indexed.remove(event);
+        if (entry == null) return;
+        for (String key : keysOf(entry.text)) {
+            Posting posting = postings.get(key);
+            if (posting != null && posting.remove(entry) && posting.size == 0) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    // Find up to limit events whose name or location contains every word of the query, earliest first.
+    // Words shorter than three characters match the start of a word, longer ones match anywhere.
+    public List<ScheduleEvent> search(String query, int limit) {
+        List<String> required = new ArrayList<>();
+        for (String term : normalize(query).split("\\s+")) {
+            if (!term.isEmpty()) required.add(term);
+        }
+        List<ScheduleEvent> results = new ArrayList<>();
+        if (required.isEmpty() || limit <= 0) return results;
+
+        // The trigrams of one term mostly hold the same events, so only the rarest one takes part
+        // in the intersection and the text check covers the others
+        List<Posting> lists = new ArrayList<>();
+        for (String term : required) {
+            Posting rarest = null;
+            for (String key : queryKeysOf(term)) {
+                Posting posting = postings.get(key);
+                if (posting == null) return results;
+                if (rarest == null || posting.size < rarest.size) rarest = posting;
+            }
+            if (!lists.contains(rarest)) lists.add(rarest);
+        }
+        lists.sort(Comparator.comparingInt(posting -> posting.size));
+
+        // Leapfrog over the ordered lists: move the candidate to the next entry every list holds,
+        // then verify it against the text since trigrams can match apart from each other
+        int[] cursors = new int[lists.size()];
+        int owner = 0;
+        int agreed = 1;
+        Entry candidate = lists.get(0).entries[0];
+        while (results.size() < limit) {
+            if (agreed == lists.size()) {
+                if (matchesAll(candidate.text, required)) results.add(candidate.event);
+                Posting posting = lists.get(owner);
+                if (++cursors[owner] == posting.size) break;
+                candidate = posting.entries[cursors[owner]];
+                agreed = 1;
+                continue;
+            }
+            owner = (owner + 1) % lists.size();
+            Posting posting = lists.get(owner);
+            cursors[owner] = posting.ceiling(cursors[owner], candidate);
+            if (cursors[owner] == posting.size) break;
+            Entry next = posting.entries[cursors[owner]];
+            if (next == candidate) {
+                agreed++;
+            } else {
+                candidate = next;
+                agreed = 1;
+            }
+        }
+        return results;
+    }
+
+    public int size() {
+        return indexed.size();
+    }
+
+    private static boolean matchesAll(String text, List<String> terms) {
+        for (String term : terms) {
+            if (!matchesTerm(text, term)) return false;
+        }
+        return true;
+    }
+
+    private static boolean matchesTerm(String text, String term) {
+        if (term.length() >= GRAM_LENGTH) return text.contains(term);
+        for (int i = text.indexOf(term); i >= 0; i = text.indexOf(term, i + 1)) {
+            if (i == 0 || Character.isWhitespace(text.charAt(i - 1))) return true;
+        }
+        return false;
+    }
+
+    // Every trigram of every word plus the short prefixes of every word
+    private static Set<String> keysOf(String text) {
+        Set<String> keys = new HashSet<>();
+        for (String word : text.split("\\s+")) {
+            for (int length = 1; length < GRAM_LENGTH && length <= word.length(); length++) {
+                keys.add("^" + word.substring(0, length));
+            }
+            for (int i = 0; i + GRAM_LENGTH <= word.length(); i++) {
+                keys.add(word.substring(i, i + GRAM_LENGTH));
+            }
+        }
+        return keys;
+    }
+
+    private static Set<String> queryKeysOf(String term) {
+        if (term.length() < GRAM_LENGTH) return Set.of("^" + term);
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= term.length(); i++) {
+            keys.add(term.substring(i, i + GRAM_LENGTH));
+        }
+        return keys;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT).trim();
+    }
+
+
+    // An indexed event with the start time it is ordered by in the posting lists
+    private static class Entry {
+        final ScheduleEvent event;
+        final String text;
+        final LocalDateTime startTime;
+        final long startSecond;
+        // Only breaks ties between events starting at the same time
+        final long sequence;
+
+        Entry(ScheduleEvent event, String text, long sequence) {
+            this.event = event;
+            this.text = text;
+            this.startTime = event.getStartTime();
+            this.startSecond = startTime.toEpochSecond(ZoneOffset.UTC);
+            this.sequence = sequence;
+        }
+
+        int compareTo(Entry other) {
+            int byStart = Long.compare(startSecond, other.startSecond);
+            return byStart != 0 ? byStart : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    // Entries of one key, always in start time order outside of addAll
+    private static class Posting {
+        Entry[] entries = new Entry[4];
+        int size;
+
+        // Insert at the entry's place, a single edit only shifts the tail of the array
+        void insert(Entry entry) {
+            int index = ceiling(0, entry);
+            grow();
+            System.arraycopy(entries, index, entries, index + 1, size - index);
+            entries[index] = entry;
+            size++;
+        }
+
+        void append(Entry entry) {
+            grow();
+            entries[size++] = entry;
+        }
+
+        void sort() {
+            Arrays.sort(entries, 0, size, Entry::compareTo);
+        }
+
+        boolean remove(Entry entry) {
+            int index = ceiling(0, entry);
+            if (index == size || entries[index] != entry) {
+                // Within addAll the appended entries are not sorted yet
+                index = 0;
+                while (index < size && entries[index] != entry) index++;
+                if (index == size) return false;
+            }
+            System.arraycopy(entries, index + 1, entries, index, size - index - 1);
+            entries[--size] = null;
+            return true;
+        }
+
+        private void grow() {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+        }
+
+        // Index of the first entry at or after the target, galloping forward from the given index
+        int ceiling(int from, Entry target) {
+            if (from >= size || entries[from].compareTo(target) >= 0) return from;
+            int low = from;
+            int step = 1;
+            while (low + step < size && entries[low + step].compareTo(target) < 0) {
+                low += step;
+                step <<= 1;
+            }
+            int high = Math.min(low + step, size);
+            while (low + 1 < high) {
+                int middle = (low + high) >>> 1;
+                if (entries[middle].compareTo(target) < 0) low = middle;
+                else high = middle;
+            }
+            return high;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+import java.awt.image.*;
+import java.io.*;
+import java.nio.charset.*;
+import java.util.*;
+import java.util.zip.*;
+
+// Class to stream images into a PDF file, one A4 landscape page per image
+class PdfImageWriter implements Closeable {
+    private static final float PAGE_WIDTH = 842f;
+    private static final float PAGE_HEIGHT = 595f;
+    private static final float MARGIN = 20f;
+
+    private final CountingOutputStream out;
+    // Byte offset of every object, index 0 is the free head of the xref table
+    private final ArrayList<Long> offsets = new ArrayList<>();
+    private final ArrayList<Integer> pageIds = new ArrayList<>();
+
+    public PdfImageWriter(File file) throws IOException {
+        out = new CountingOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+        offsets.add(0L);
+        write("%PDF-1.4\n%\u00e2\u00e3\u00cf\u00d3\n");
+        // Object 1 is the catalog and object 2 the page tree, written on close
+        beginObject();
+        write("<< /Type /Catalog /Pages 2 0 R >>\nendobj\n");
+        offsets.add(0L);
+    }
+
+    // Add a page showing the image scaled to fit the page, the pixels are deflated as they are written
+    public void addPage(BufferedImage image) throws IOException {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        float scale = Math.min((PAGE_WIDTH - 2 * MARGIN) / width, (PAGE_HEIGHT - 2 * MARGIN) / height);
+        float drawWidth = width * scale;
+        float drawHeight = height * scale;
+        float x = (PAGE_WIDTH - drawWidth) / 2;
+        float y = (PAGE_HEIGHT - drawHeight) / 2;
+
+        int pageId = offsets.size();
+        int contentId = pageId + 1;
+        int imageId = pageId + 2;
+        int lengthId = pageId + 3;
+        pageIds.add(pageId);
+
+        beginObject();
+        write(String.format(Locale.ROOT,
+            "<< /Type /Page /Parent 2 0 R /MediaBox [0 0 %.0f %.0f] "
+            + "/Resources << /XObject << /Im0 %d 0 R >> >> /Contents %d 0 R >>\nendobj\n",
+            PAGE_WIDTH, PAGE_HEIGHT, imageId, contentId));
+
+        String content = String.format(Locale.ROOT, "q %.2f 0 0 %.2f %.2f %.2f cm /Im0 Do Q\n",
+            drawWidth, drawHeight, x, y);
+        beginObject();
+        write("<< /Length " + content.length() + " >>\nstream\n" + content + "endstream\nendobj\n");
+
+        beginObject();
+        write("<< /Type /XObject /Subtype /Image /Width " + width + " /Height " + height
+            + " /ColorSpace /DeviceRGB /BitsPerComponent 8 /Filter /FlateDecode /Length "
+            + lengthId + " 0 R >>\nstream\n");
+        long streamStart = out.getCount();
+        // Release the native zlib memory of every page right away instead of waiting for the GC
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            DeflaterOutputStream compressed = new DeflaterOutputStream(out, deflater, 1 << 16);
+            int[] argb = new int[width];
+            byte[] rgb = new byte[width * 3];
+            for (int row = 0; row < height; row++) {
+                image.getRGB(0, row, width, 1, argb, 0, width);
+                for (int i = 0; i < width; i++) {
+                    rgb[i * 3] = (byte) (argb[i] >> 16);
+                    rgb[i * 3 + 1] = (byte) (argb[i] >> 8);
+                    rgb[i * 3 + 2] = (byte) argb[i];
+                }
+                compressed.write(rgb);
+            }
+            compressed.finish();
+        } finally {
+            deflater.end();
+        }
+        long streamLength = out.getCount() - streamStart;
+        write("\nendstream\nendobj\n");
+
+        beginObject();
+        write(streamLength + "\nendobj\n");
+    }
+
+    // Write the page tree, the xref table and the trailer
+    @Override
+    public void close() throws IOException {
+        offsets.set(2, out.getCount());
+        StringBuilder kids = new StringBuilder();
+        for (int pageId : pageIds) {
+            kids.append(pageId).append(" 0 R ");
+        }
+        write("2 0 obj\n<< /Type /Pages /Kids [ " + kids + "] /Count " + pageIds.size() + " >>\nendobj\n");
+
+        long xrefOffset = out.getCount();
+        StringBuilder xref = new StringBuilder();
+        xref.append("xref\n0 ").append(offsets.size()).append("\n0000000000 65535 f \n");
+        for (int i = 1; i < offsets.size(); i++) {
+            xref.append(String.format(Locale.ROOT, "%010d 00000 n \n", offsets.get(i)));
+        }
+        xref.append("trailer\n<< /Size ").append(offsets.size()).append(" /Root 1 0 R >>\n")
+            .append("startxref\n").append(xrefOffset).append("\n%%EOF\n");
+        write(xref.toString());
+        out.close();
+    }
+
+    private void beginObject() throws IOException {
+        int id = offsets.size();
+        offsets.add(out.getCount());
+        write(id + " 0 obj\n");
+    }
+
+    private void write(String text) throws IOException {
+        out.write(text.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    // Keeps track of the file position for the xref table
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+import java.io.*;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+import java.util.zip.*;
+
+// Class for the cold tier of the schedule, every sealed week is a compressed read-only segment file
+class ScheduleArchive {
+    private static final int SEGMENT_MAGIC = 0x57534547; // "WSEG"
+    private static final int INDEX_MAGIC = 0x57494458;   // "WIDX"
+    // Version 2 added the busy minutes per hour to the segment header and the index
+    private static final int VERSION = 2;
+    private static final int HOURS_PER_WEEK = 7 * 24;
+    private static final String INDEX_FILE = "index.dat";
+
+    private final Path directory;
+    private final boolean readOnly;
+    // Sparse date index, one entry per sealed week keyed by its Monday
+    private final TreeMap<LocalDate, SegmentInfo> segments = new TreeMap<>();
+
+    public ScheduleArchive(String directory) throws IOException {
+        this(directory, false);
+    }
+
+    private ScheduleArchive(String directory, boolean readOnly) throws IOException {
+        this.directory = Paths.get(directory);
+        this.readOnly = readOnly;
+        if (readOnly) {
+            if (!Files.isDirectory(this.directory)) return;
+        } else {
+            Files.createDirectories(this.directory);
+        }
+        if (!readIndex()) {
+            rebuildIndex();
+        }
+    }
+
+    // Open the archive only to read sealed weeks, nothing on disk is created or rewritten
+    public static ScheduleArchive openReadOnly(String directory) throws IOException {
+        return new ScheduleArchive(directory, true);
+    }
+
+    public boolean contains(LocalDate monday) {
+        return segments.containsKey(monday);
+    }
+
+    // Mondays of all sealed weeks within [from, to]
+    public NavigableSet<LocalDate> weeksBetween(LocalDate from, LocalDate to) {
+        return segments.navigableKeySet().subSet(from, true, to, true);
+    }
+
+    public NavigableSet<LocalDate> weeks() {
+        return segments.navigableKeySet();
+    }
+
+    // Booked minutes between the two hours of an archived date, read from the index without loading the week
+    public int busyMinutes(LocalDate date, int fromHour, int toHour) {
+        SegmentInfo info = segments.get(date.minusDays(date.getDayOfWeek().getValue() - 1));
+        if (info == null) return 0;
+        int dayStart = (date.getDayOfWeek().getValue() - 1) * 24;
+        int minutes = 0;
+        for (int hour = Math.max(0, fromHour); hour < Math.min(24, toHour); hour++) {
+            minutes += info.busyMinutes[dayStart + hour];
+        }
+        return minutes;
+    }
+
+    // Read the events of a sealed week
+    public ArrayList<ScheduleEvent> loadWeek(LocalDate monday) throws IOException {
+        SegmentInfo info = segments.get(monday);
+        if (info == null) return new ArrayList<>();
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(segmentPath(monday))))) {
+            SegmentInfo header = readHeader(in, monday);
+            if (header.checksum != info.checksum || header.length != info.length) {
+                throw new IOException("Archive segment " + monday + " does not match the index");
+            }
+            return readEvents(in, monday, info);
+        }
+    }
+
+    // Read the payload following a segment header, verifying the checksum before inflating
+    @SuppressWarnings("unchecked")
+    private static ArrayList<ScheduleEvent> readEvents(DataInputStream in, LocalDate monday, SegmentInfo info)
+            throws IOException {
+        byte[] payload = in.readNBytes((int) info.length);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if (payload.length != info.length || crc.getValue() != info.checksum) {
+            throw new IOException("Archive segment " + monday + " is corrupted");
+        }
+
+        try (ObjectInputStream ois = new ObjectInputStream(
+                new InflaterInputStream(new ByteArrayInputStream(payload)))) {
+            return (ArrayList<ScheduleEvent>) ois.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Archive segment " + monday + " is unreadable", e);
+        }
+    }
+
+    // Seal the events of a week into a new segment, replacing any earlier segment of that week
+    public void seal(LocalDate monday, List<ScheduleEvent> weekEvents) throws IOException {
+        checkWritable();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (ObjectOutputStream oos = new ObjectOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            oos.writeObject(new ArrayList<>(weekEvents));
+        } finally {
+            deflater.end();
+        }
+        byte[] payload = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        SegmentInfo info = new SegmentInfo(weekEvents.size(), crc.getValue(), payload.length,
+            summarize(monday, weekEvents));
+
+        Path target = segmentPath(monday);
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(SEGMENT_MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(monday.toEpochDay());
+            writeInfo(out, info);
+            out.write(payload);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        segments.put(monday, info);
+        writeIndex();
+    }
+
+    // Drop the segment of a week, used when its events move back into the hot schedule
+    public void remove(LocalDate monday) throws IOException {
+        checkWritable();
+        if (segments.remove(monday) != null) {
+            Files.deleteIfExists(segmentPath(monday));
+            writeIndex();
+        }
+    }
+
+    // Booked minutes of every hour of the week, so charts of archived days need not load the events
+    private static byte[] summarize(LocalDate monday, List<ScheduleEvent> weekEvents) {
+        BusyTimeAggregate busyTime = new BusyTimeAggregate();
+        busyTime.addAll(weekEvents);
+        byte[] busyMinutes = new byte[HOURS_PER_WEEK];
+        for (int hour = 0; hour < HOURS_PER_WEEK; hour++) {
+            busyMinutes[hour] = (byte) busyTime.busyMinutes(monday.plusDays(hour / 24), hour % 24, hour % 24 + 1);
+        }
+        return busyMinutes;
+    }
+
+    private void checkWritable() throws IOException {
+        if (readOnly) throw new IOException("Archive " + directory + " is open read-only");
+    }
+
+    private Path segmentPath(LocalDate monday) {
+        return directory.resolve("week-" + monday + ".seg");
+    }
+
+    private boolean readIndex() {
+        Path index = directory.resolve(INDEX_FILE);
+        if (!Files.exists(index)) return false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(index)))) {
+            if (in.readInt() != INDEX_MAGIC || in.readInt() != VERSION) return false;
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                LocalDate monday = LocalDate.ofEpochDay(in.readLong());
+                segments.put(monday, readInfo(in, VERSION));
+            }
+            return true;
+        } catch (IOException e) {
+            segments.clear();
+            return false;
+        }
+    }
+
+    // Recreate the index from the segment headers when the index file is missing or damaged
+    private void rebuildIndex() throws IOException {
+        segments.clear();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "week-*.seg")) {
+            for (Path file : files) {
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                    String name = file.getFileName().toString();
+                    LocalDate monday = LocalDate.parse(name.substring(5, name.length() - 4));
+                    SegmentInfo header = readHeader(in, monday);
+                    if (header.busyMinutes == null) {
+                        // Segments sealed before version 2 have no summary in their header yet
+                        header = new SegmentInfo(header.eventCount, header.checksum, header.length,
+                            summarize(monday, readEvents(in, monday, header)));
+                    }
+                    segments.put(monday, header);
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Skipping unreadable archive segment " + file + ": " + e.getMessage());
+                }
+            }
+        }
+        if (!readOnly) {
+            writeIndex();
+        }
+    }
+
+    private void writeIndex() throws IOException {
+        Path index = directory.resolve(INDEX_FILE);
+        Path temp = directory.resolve(INDEX_FILE + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(INDEX_MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(segments.size());
+            for (Map.Entry<LocalDate, SegmentInfo> entry : segments.entrySet()) {
+                out.writeLong(entry.getKey().toEpochDay());
+                writeInfo(out, entry.getValue());
+            }
+        }
+        Files.move(temp, index, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Segments of version 1 are still read, their info comes back without the busy minutes
+    private static SegmentInfo readHeader(DataInputStream in, LocalDate monday) throws IOException {
+        int version;
+        if (in.readInt() != SEGMENT_MAGIC || (version = in.readInt()) < 1 || version > VERSION
+                || in.readLong() != monday.toEpochDay()) {
+            throw new IOException("Archive segment " + monday + " has an invalid header");
+        }
+        return readInfo(in, version);
+    }
+
+    private static SegmentInfo readInfo(DataInputStream in, int version) throws IOException {
+        int eventCount = in.readInt();
+        long checksum = in.readLong();
+        long length = in.readLong();
+        byte[] busyMinutes = null;
+        if (version >= 2) {
+            busyMinutes = new byte[HOURS_PER_WEEK];
+            in.readFully(busyMinutes);
+        }
+        return new SegmentInfo(eventCount, checksum, length, busyMinutes);
+    }
+
+    private static void writeInfo(DataOutputStream out, SegmentInfo info) throws IOException {
+        out.writeInt(info.eventCount);
+        out.writeLong(info.checksum);
+        out.writeLong(info.length);
+        out.write(info.busyMinutes);
+    }
+
+    // busyMinutes holds the booked minutes of each hour of the week, Monday 0:00 first
+    private record SegmentInfo(int eventCount, long checksum, long length, byte[] busyMinutes) {}
+}
@@ -0,0 +1,58 @@
+import java.time.*;
+import java.util.*;
+
+// A single change to the schedule, old and new values are detached copies taken when it happened.
+// event is the live event, which the event dispatch thread keeps editing, so it is only set for
+// subscribers running there. passedDates are the days of values in between, when several changes
+// to one event were merged.
+record ScheduleChange(Type type, ScheduleEvent event, ScheduleEvent oldValue, ScheduleEvent newValue,
+        Set<LocalDate> passedDates) {
+
+    enum Type { ADDED, UPDATED, REMOVED }
+
+    static ScheduleChange added(ScheduleEvent event) {
+        return new ScheduleChange(Type.ADDED, event, null, new ScheduleEvent(event), Set.of());
+    }
+
+    static ScheduleChange updated(ScheduleEvent event, ScheduleEvent previous) {
+        return new ScheduleChange(Type.UPDATED, event, previous, new ScheduleEvent(event), Set.of());
+    }
+
+    static ScheduleChange removed(ScheduleEvent event) {
+        return new ScheduleChange(Type.REMOVED, event, new ScheduleEvent(event), null, Set.of());
+    }
+
+    // The same change without the live event, for subscribers off the event dispatch thread
+    ScheduleChange detached() {
+        return new ScheduleChange(type, null, oldValue, newValue, passedDates);
+    }
+
+    String eventId() {
+        return (newValue != null ? newValue : oldValue).getId();
+    }
+
+    // The net effect of this change followed by a later one to the same event
+    ScheduleChange followedBy(ScheduleChange later) {
+        Set<LocalDate> dates = affectedDates();
+        dates.addAll(later.affectedDates());
+        if (later.newValue == null) {
+            // Removed in the end, an event added in between is removed without ever being seen
+            ScheduleEvent before = oldValue != null ? oldValue : later.oldValue;
+            return new ScheduleChange(Type.REMOVED, later.event, before, null, dates);
+        }
+        Type type = oldValue == null ? Type.ADDED : Type.UPDATED;
+        return new ScheduleChange(type, later.event, oldValue, later.newValue, dates);
+    }
+
+    // Days whose calender columns show the event before or after the change
+    Set<LocalDate> affectedDates() {
+        Set<LocalDate> dates = new HashSet<>(passedDates);
+        for (ScheduleEvent value : new ScheduleEvent[] { oldValue, newValue }) {
+            if (value != null) {
+                dates.add(value.getStartTime().toLocalDate());
+                dates.add(value.getEndTime().toLocalDate());
+            }
+        }
+        return dates;
+    }
+}
@@ -0,0 +1,84 @@
+import java.util.*;
+import java.util.concurrent.*;
+
+// Class publishing schedule changes to independent subscribers in small batches
+class ScheduleChangeFeed implements AutoCloseable {
+    // Changes made within this window are delivered together
+    private static final long BATCH_DELAY_MS = 25;
+    private static final int MAX_BATCH_SIZE = 256;
+    // Batches buffered per subscriber before publishing waits for it to catch up
+    private static final int SUBSCRIBER_BUFFER = 64;
+
+    private final ExecutorService delivery;
+    private final ScheduledExecutorService batcher;
+    private final SubmissionPublisher<List<ScheduleChange>> publisher;
+    // Changes waiting for the next batch, at most one per event
+    private Map<ScheduleEvent, ScheduleChange> pending = new LinkedHashMap<>();
+    private boolean flushScheduled;
+    private boolean flushQueued;
+    private boolean closed;
+
+    public ScheduleChangeFeed() {
+        delivery = Executors.newCachedThreadPool(daemonThreads("schedule-change-delivery"));
+        batcher = Executors.newSingleThreadScheduledExecutor(daemonThreads("schedule-change-batcher"));
+        publisher = new SubmissionPublisher<>(delivery, SUBSCRIBER_BUFFER);
+    }
+
+    // A subscriber receives each change with its live event, which may only be read on the event
+    // dispatch thread. ScheduleChangeSubscriber leaves it out for handlers running elsewhere.
+    public void subscribe(Flow.Subscriber<? super List<ScheduleChange>> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    // Queue a change, it is delivered with the others made in the same batch window.
+    // Producers are never throttled, so this is safe to call from the event dispatch thread. While a slow
+    // subscriber holds up the batcher, a change to an event that is still pending is merged into the
+    // pending change, which keeps the backlog at no more than one change per event.
+    public synchronized void publish(ScheduleChange change) {
+        if (closed) throw new IllegalStateException("Schedule change feed is closed");
+        pending.merge(change.event(), change, ScheduleChange::followedBy);
+        if (!flushScheduled) {
+            flushScheduled = true;
+            batcher.schedule(this::flush, BATCH_DELAY_MS, TimeUnit.MILLISECONDS);
+        } else if (pending.size() >= MAX_BATCH_SIZE && !flushQueued) {
+            flushQueued = true;
+            batcher.execute(this::flush);
+        }
+    }
+
+    // Runs on the batcher thread, where submit may wait for a slow subscriber
+    private void flush() {
+        List<ScheduleChange> batch;
+        synchronized (this) {
+            flushScheduled = false;
+            flushQueued = false;
+            if (pending.isEmpty()) return;
+            batch = List.copyOf(pending.values());
+            pending = new LinkedHashMap<>();
+        }
+        publisher.submit(batch);
+    }
+
+    // Stop taking changes, deliver the pending ones and then complete every subscriber.
+    // Returns without waiting for the delivery, so it can be called from the event dispatch thread.
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+        }
+        batcher.execute(() -> {
+            flush();
+            publisher.close();
+        });
+        batcher.shutdown();
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,62 @@
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+import javax.swing.*;
+
+// Class for a subscriber that handles one batch of changes at a time
+class ScheduleChangeSubscriber implements Flow.Subscriber<List<ScheduleChange>> {
+    private final String name;
+    private final boolean onEventDispatchThread;
+    private final Consumer<List<ScheduleChange>> handler;
+    private Flow.Subscription subscription;
+
+    // Handlers that touch Swing components or state shared with them run on the event dispatch thread.
+    // Other handlers run on a delivery thread and get the changes without the live events.
+    public ScheduleChangeSubscriber(String name, boolean onEventDispatchThread,
+            Consumer<List<ScheduleChange>> handler) {
+        this.name = name;
+        this.onEventDispatchThread = onEventDispatchThread;
+        this.handler = handler;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+    // The next batch is only requested once this one is handled, which gives the backpressure
+    @Override
+    public void onNext(List<ScheduleChange> changes) {
+        try {
+            if (onEventDispatchThread) {
+                SwingUtilities.invokeAndWait(() -> handler.accept(changes));
+            } else {
+                List<ScheduleChange> detached = new ArrayList<>(changes.size());
+                for (ScheduleChange change : changes) {
+                    detached.add(change.detached());
+                }
+                handler.accept(detached);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            subscription.cancel();
+            return;
+        } catch (InvocationTargetException | RuntimeException e) {
+            Throwable cause = e instanceof InvocationTargetException ? e.getCause() : e;
+            System.err.println("Schedule change subscriber " + name + " failed: " + cause);
+            cause.printStackTrace();
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        System.err.println("Schedule change feed failed for " + name + ": " + throwable);
+    }
+
+    @Override
+    public void onComplete() {
+    }
+}
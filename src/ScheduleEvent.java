@@ -1,9 +1,14 @@
 import java.awt.*;
 import java.io.*;
+import java.nio.charset.*;
 import java.time.*;
+import java.util.*;
 
 // Class for a single event in the schedule
 class ScheduleEvent implements Serializable {
+    // Pinned to the value of the original class so existing schedule files keep loading
+    private static final long serialVersionUID = 5843673767790453478L;
+    private String id;
     private String name;
     private String location;
     private LocalDateTime startTime;
@@ -16,6 +21,7 @@ class ScheduleEvent implements Serializable {
         if (name.length() > 32 || location.length() > 32) {
             throw new IllegalArgumentException("Name and location must be 32 characters or less");
         }
+        this.id = UUID.randomUUID().toString();
         this.name = name;
         this.location = location;
         this.startTime = startTime;
@@ -23,6 +29,22 @@ class ScheduleEvent implements Serializable {
         this.color = color;
     }
 
+    // Detached copy of an event, used to keep the value it had before a change
+    public ScheduleEvent(ScheduleEvent other) {
+        this(other.name, other.location, other.startTime, other.endTime, other.color);
+        this.id = other.id;
+    }
+
+    // Events saved before ids existed get one derived from their content,
+    // so every machine reading the same file gives them the same id
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (id == null) {
+            String content = name + "\n" + location + "\n" + startTime + "\n" + endTime;
+            id = UUID.nameUUIDFromBytes(content.getBytes(StandardCharsets.UTF_8)).toString();
+        }
+    }
+
     // Getters and setters with validation
     public void setName(String name) {
         if (name.length() > 32) throw new IllegalArgumentException("Name too long");
@@ -38,6 +60,7 @@ class ScheduleEvent implements Serializable {
     public void setEndTime(LocalDateTime endTime) { this.endTime = endTime; }
     public void setColor(Color color) { this.color = color; }
 
+    public String getId() { return id; }
     public String getName() { return name; }
     public String getLocation() { return location; }
     public LocalDateTime getStartTime() { return startTime; }
@@ -0,0 +1,75 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+// Class watching the schedule file for changes made by other programs, such as a sync tool
+class ScheduleFileWatcher {
+    // Writers often touch the file several times, so wait until it has been quiet this long
+    private static final long SETTLE_MS = 300;
+
+    private final Path file;
+    private final Consumer<byte[]> onChange;
+    private WatchService watchService;
+
+    // onChange gets the new file contents and runs on the watcher thread
+    public ScheduleFileWatcher(String file, Consumer<byte[]> onChange) {
+        this.file = Paths.get(file).toAbsolutePath();
+        this.onChange = onChange;
+    }
+
+    public void start() throws IOException {
+        watchService = file.getFileSystem().newWatchService();
+        file.getParent().register(watchService,
+            StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        Thread thread = new Thread(this::watch, "schedule-file-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = touchesFile(key);
+                key.reset();
+                if (!changed) continue;
+
+                // Let the writer finish before reading
+                WatchKey more;
+                while ((more = watchService.poll(SETTLE_MS, TimeUnit.MILLISECONDS)) != null) {
+                    more.pollEvents();
+                    more.reset();
+                }
+                try {
+                    onChange.accept(Files.readAllBytes(file));
+                } catch (NoSuchFileException e) {
+                    // Replaced by a rename that is not finished yet, the create event follows
+                } catch (IOException e) {
+                    System.err.println("Cannot read changed schedule file: " + e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Stopped
+        }
+    }
+
+    private boolean touchesFile(WatchKey key) {
+        boolean touched = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || file.getFileName().equals(event.context())) {
+                touched = true;
+            }
+        }
+        return touched;
+    }
+}
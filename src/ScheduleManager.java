@@ -1,17 +1,52 @@
+import java.awt.event.*;
 import java.io.*;
 import java.time.*;
+import java.time.format.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.*;
 import javax.swing.*;
 
 //  Class to managing the scheduling tasks
 class ScheduleManager extends JFrame {
+    static final String SCHEDULE_FILE = "src/scheduleData/schedule.dat";
+    static final String ARCHIVE_DIRECTORY = "src/scheduleData/archive";
+    static final String RULES_FILE = "src/scheduleData/rules.properties";
+    // Weeks that ended more than this many weeks ago are sealed into the archive
+    private static final int ARCHIVE_AFTER_WEEKS = Integer.getInteger("scheduler.archiveAfterWeeks", 8);
+    // Archived weeks kept in memory once shown, the least recently used ones are unloaded again
+    private static final int LOADED_ARCHIVE_WEEKS = Integer.getInteger("scheduler.loadedArchiveWeeks", 8);
     private WeeklyCalendarView weekPanel;
     private ArrayList<ScheduleEvent> events;
     private LocalDate currentMonday;
     private JMenuBar menuBar;
+    private JMenuItem exportItem;
+    private WorkingHoursRules workingHours;
+    private EventSearchIndex searchIndex;
+    private BusyTimeAggregate busyTime;
+    private ScheduleChangeFeed changeFeed;
+    private boolean unsavedChanges;
+    private ScheduleFileWatcher fileWatcher;
+    // Hot events as they are in the schedule file by id, the base for merging external changes
+    private Map<String, ScheduleEvent> lastSynced = new HashMap<>();
+    private long lastSyncedChecksum;
+    private ScheduleArchive archive;
+    // Events loaded from archived weeks, mapped to the Monday of their segment
+    private final Map<ScheduleEvent, LocalDate> archivedEvents = new IdentityHashMap<>();
+    // Loaded archived weeks, least recently used first
+    private final Set<LocalDate> loadedArchiveWeeks = new LinkedHashSet<>();
+    // Archived weeks that were edited, their segments are dropped after the next save
+    private final Set<LocalDate> thawedWeeks = new HashSet<>();
 
     public ScheduleManager() {
         events = new ArrayList<>();
+        try {
+            workingHours = WorkingHoursRules.load(RULES_FILE);
+        } catch (IOException | IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(this, 
+                "Error loading working hours rules: " + e.getMessage() + "\nThe default rules are used.");
+            workingHours = WorkingHoursRules.defaultRules();
+        }
         
         // Load existing schedule or ask for the initial date
         if (!loadSchedule()) {
@@ -33,7 +68,15 @@ class ScheduleManager extends JFrame {
             }
         }
 
+        openArchive();
+        searchIndex = new EventSearchIndex();
+        searchIndex.addAll(events);
+        busyTime = new BusyTimeAggregate();
+        busyTime.addAll(events);
         setUserInterface();
+        changeFeed = new ScheduleChangeFeed();
+        subscribeToChanges();
+        watchScheduleFile();
     }
 
      // Set the main user interface
@@ -42,81 +85,594 @@ class ScheduleManager extends JFrame {
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setSize(1200, 800);
 
+        // Changes still waiting in the feed must not be lost on exit, so the file is written here
+        // directly instead of waiting for the persistence subscriber
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                try {
+                    fileWatcher.stop();
+                } catch (IOException ex) {
+                    System.err.println("Error stopping the schedule file watcher: " + ex.getMessage());
+                }
+                if (unsavedChanges) {
+                    try {
+                        writeScheduleFile();
+                    } catch (IOException ex) {
+                        JOptionPane.showMessageDialog(ScheduleManager.this,
+                            "Error saving schedule: " + ex.getMessage());
+                    }
+                }
+                changeFeed.close();
+            }
+        });
+
          // Create menu bar 
         menuBar = new JMenuBar();
         JMenu fileMenu = new JMenu("Menu");
         JMenuItem newEventItem = new JMenuItem("Add New Event");
+        JMenuItem searchItem = new JMenuItem("Search Events");
+        JMenuItem overviewItem = new JMenuItem("Busy Overview");
+        exportItem = new JMenuItem("Export Weeks");
         JMenuItem saveItem = new JMenuItem("Save Schedule");
 
         newEventItem.addActionListener(e -> showNewEventDialog());
+        searchItem.addActionListener(e -> new EventSearchDialog(this, searchIndex).setVisible(true));
+        overviewItem.addActionListener(e ->
+            new BusyOverviewDialog(this, workingHours, weekPanel.getMonday()).setVisible(true));
+        exportItem.addActionListener(e -> showExportDialog());
         saveItem.addActionListener(e -> saveSchedule());
 
         fileMenu.add(newEventItem);
+        fileMenu.add(searchItem);
+        fileMenu.add(overviewItem);
+        fileMenu.add(exportItem);
         fileMenu.add(saveItem);
         menuBar.add(fileMenu);
         setJMenuBar(menuBar);
 
          // Create and add the calendar view
-        weekPanel = new WeeklyCalendarView(currentMonday, events, this);
+        weekPanel = new WeeklyCalendarView(currentMonday, events, workingHours, this);
         add(weekPanel);
     }
 
-    // Display form to create a new event
+    // Display form to create a new event, the form adds it through addNewEvent
     void showNewEventDialog() {
         EventDetailsForm dialog = new EventDetailsForm(this, null);
         dialog.setVisible(true);
-        ScheduleEvent newEvent = dialog.getEvent();
-        if (newEvent != null && isValidEvent(newEvent)) {
-            events.add(newEvent);
-            weekPanel.repaint();
-            saveSchedule();
+    }
+
+    // Export a number of weeks from the shown week to PNG files or a PDF
+    private void showExportDialog() {
+        String input = JOptionPane.showInputDialog(this, 
+            "Number of weeks to export:", "4");
+        if (input == null) return;
+        int weeks;
+        try {
+            weeks = Integer.parseInt(input.trim());
+            if (weeks < 1) throw new NumberFormatException();
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "Invalid number of weeks");
+            return;
         }
+
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export to a PDF file or a folder for PNG files");
+        chooser.setFileSelectionMode(JFileChooser.FILES_AND_DIRECTORIES);
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        File output = chooser.getSelectedFile();
+
+        LocalDate firstMonday = weekPanel.getMonday();
+        WeeklyScheduleExporter exporter;
+        try {
+            exporter = new WeeklyScheduleExporter(eventsForExport(firstMonday, weeks), workingHours);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Error exporting schedule: " + e.getMessage());
+            return;
+        }
+
+        // Render and write in the background so the window stays responsive
+        exportItem.setEnabled(false);
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws IOException {
+                if (output.getName().toLowerCase(Locale.ROOT).endsWith(".pdf")) {
+                    exporter.exportPdf(firstMonday, weeks, output);
+                } else {
+                    exporter.exportPng(firstMonday, weeks, output);
+                }
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                exportItem.setEnabled(true);
+                try {
+                    get();
+                    JOptionPane.showMessageDialog(ScheduleManager.this, "Schedule exported successfully.");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    JOptionPane.showMessageDialog(ScheduleManager.this,
+                        "Error exporting schedule: " + e.getCause().getMessage());
+                }
+            }
+        }.execute();
     }
 
-    // Validate the event
-    private boolean isValidEvent(ScheduleEvent newEvent) {
-        
-        // Duration check 
-        long durationMinutes = Duration.between(
-            newEvent.getStartTime(), newEvent.getEndTime()).toMinutes();
-        if (durationMinutes < 30 || durationMinutes > 180) {
-            JOptionPane.showMessageDialog(this, 
-                "Event duration must be between 30 minutes minimum and 3 hours maximum.");
-            return false;
+    // The events to export, archived weeks of the range that are not loaded are read straight
+    // from their segments into the copy instead of into the schedule
+    private ArrayList<ScheduleEvent> eventsForExport(LocalDate firstMonday, int weeks) throws IOException {
+        ArrayList<ScheduleEvent> exported = new ArrayList<>(events);
+        if (archive == null) return exported;
+        Set<String> knownIds = eventIds();
+        for (LocalDate monday : archive.weeksBetween(firstMonday, firstMonday.plusWeeks(weeks - 1))) {
+            if (loadedArchiveWeeks.contains(monday) || thawedWeeks.contains(monday)) continue;
+            for (ScheduleEvent event : archive.loadWeek(monday)) {
+                if (knownIds.add(event.getId())) exported.add(event);
+            }
         }
+        return exported;
+    }
 
-        // Check if event is within allowed times
-        int dayOfWeek = newEvent.getStartTime().getDayOfWeek().getValue();
-        switch (dayOfWeek) {
-            case 7 -> {
-                JOptionPane.showMessageDialog(this, "No events allowed on Sunday");
-                return false;
+    // Keep the search index, the busy time, the calender and the file in step with every change
+    private void subscribeToChanges() {
+        changeFeed.subscribe(new ScheduleChangeSubscriber("search index", true, changes -> {
+            for (ScheduleChange change : changes) {
+                switch (change.type()) {
+                    case ADDED -> searchIndex.add(change.event());
+                    case UPDATED -> searchIndex.update(change.event());
+                    case REMOVED -> searchIndex.remove(change.event());
+                }
             }
-            case 6 -> {
-                if (newEvent.getStartTime().getHour() < 8 ||
-                        newEvent.getEndTime().getHour() > 15) {
-                    JOptionPane.showMessageDialog(this,
-                            "Saturday events must be between 8 AM and 3 PM");
-                    return false;
+        }));
+        changeFeed.subscribe(new ScheduleChangeSubscriber("busy time", true, changes -> {
+            for (ScheduleChange change : changes) {
+                switch (change.type()) {
+                    case ADDED -> busyTime.add(change.event());
+                    case UPDATED -> busyTime.update(change.event());
+                    case REMOVED -> busyTime.remove(change.event());
                 }
             }
-            default -> {
-                if (newEvent.getStartTime().getHour() < 8 ||
-                        newEvent.getEndTime().getHour() > 20) {
-                    JOptionPane.showMessageDialog(this,
-                            "Weekday events must be between 8 AM and 8 PM");
-                    return false;
+        }));
+        changeFeed.subscribe(new ScheduleChangeSubscriber("calender repaint", true, changes -> {
+            Set<LocalDate> dates = new HashSet<>();
+            for (ScheduleChange change : changes) {
+                dates.addAll(change.affectedDates());
+            }
+            weekPanel.repaintDays(dates);
+        }));
+        // One write per batch however many changes it holds
+        changeFeed.subscribe(new ScheduleChangeSubscriber("persistence", true, changes -> {
+            if (!unsavedChanges) return;
+            try {
+                writeScheduleFile();
+            } catch (IOException e) {
+                JOptionPane.showMessageDialog(this, "Error saving schedule: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }));
+    }
+
+    // Merge changes other programs make to the schedule file, for example a sync between machines
+    private void watchScheduleFile() {
+        fileWatcher = new ScheduleFileWatcher(SCHEDULE_FILE, contents -> {
+            CRC32 crc = new CRC32();
+            crc.update(contents);
+            ArrayList<ScheduleEvent> external;
+            try {
+                external = readEvents(new ByteArrayInputStream(contents));
+            } catch (IOException | ClassNotFoundException e) {
+                System.err.println("Ignoring unreadable schedule file change: " + e.getMessage());
+                return;
+            }
+            SwingUtilities.invokeLater(() -> mergeExternalSchedule(external, crc.getValue()));
+        });
+        try {
+            fileWatcher.start();
+        } catch (IOException e) {
+            System.err.println("Cannot watch the schedule file: " + e.getMessage());
+        }
+    }
+
+    // Three-way merge of the file's events with the hot events, using the last synced file as the base.
+    // Changes made only in the file are applied here, changes made on both sides keep the local version.
+    private void mergeExternalSchedule(ArrayList<ScheduleEvent> external, long checksum) {
+        if (checksum == lastSyncedChecksum) return; // Our own write
+
+        Map<String, ScheduleEvent> local = new HashMap<>();
+        for (ScheduleEvent event : events) {
+            if (!archivedEvents.containsKey(event)) {
+                local.put(event.getId(), event);
+            }
+        }
+        Map<String, ScheduleEvent> theirs = new LinkedHashMap<>();
+        for (ScheduleEvent event : external) {
+            theirs.put(event.getId(), event);
+        }
+        Set<String> ids = new LinkedHashSet<>(lastSynced.keySet());
+        ids.addAll(local.keySet());
+        ids.addAll(theirs.keySet());
+
+        LocalDate cutoff = archiveCutoff();
+        Map<LocalDate, Map<String, ScheduleEvent>> sealedWeeks = new HashMap<>();
+        ArrayList<ScheduleEvent> conflicts = new ArrayList<>();
+        for (String id : ids) {
+            ScheduleEvent base = lastSynced.get(id);
+            ScheduleEvent mine = local.get(id);
+            ScheduleEvent other = theirs.get(id);
+            // Nothing new in the file, or the same edit on both sides
+            if (sameContent(base, other) || sameContent(mine, other)) continue;
+            if (!sameContent(base, mine)) {
+                conflicts.add(mine != null ? mine : other);
+                continue;
+            }
+
+            if (other == null) {
+                // Cold events leave the file when the other machine archives them, they are not deleted
+                if (mondayOf(mine.getStartTime().toLocalDate()).isBefore(cutoff)) continue;
+                events.remove(mine);
+                changeFeed.publish(ScheduleChange.removed(mine));
+            } else if (mine == null) {
+                LocalDate monday = mondayOf(other.getStartTime().toLocalDate());
+                boolean cold = monday.isBefore(cutoff) || (archive != null && archive.contains(monday));
+                if (!cold) {
+                    addExternalEvent(other);
+                    continue;
+                }
+                if (archive == null) {
+                    // Without the archive a cold event cannot be told apart from one this machine archived
+                    conflicts.add(other);
+                    continue;
+                }
+                LocalDate sealedMonday = findSealedWeek(id, monday, sealedWeeks);
+                if (sealedMonday == null) {
+                    // A new event in a cold week, an archived week is thawed first to take it
+                    if (archive.contains(monday)) {
+                        loadArchivedWeek(monday);
+                        if (!thawWeek(monday)) {
+                            conflicts.add(other);
+                            continue;
+                        }
+                        unsavedChanges = true;
+                    }
+                    addExternalEvent(other);
+                    continue;
+                }
+                // A file that was not compacted yet still holds weeks this machine has archived
+                if (sameContent(sealedWeeks.get(sealedMonday).get(id), other)) continue;
+
+                // Changed in the file since it was archived, so the event's week is thawed to apply it.
+                // A week thawed earlier in this merge is already in memory.
+                loadArchivedWeek(sealedMonday);
+                ScheduleEvent archived = null;
+                for (ScheduleEvent event : events) {
+                    if (event.getId().equals(id)) archived = event;
+                }
+                if (archived == null) {
+                    conflicts.add(other);
+                    continue;
+                }
+                thawWeekOf(archived);
+                unsavedChanges = true;
+                ScheduleEvent previous = new ScheduleEvent(archived);
+                copyContent(other, archived);
+                changeFeed.publish(ScheduleChange.updated(archived, previous));
+            } else {
+                ScheduleEvent previous = new ScheduleEvent(mine);
+                copyContent(other, mine);
+                changeFeed.publish(ScheduleChange.updated(mine, previous));
+            }
+        }
+
+        lastSynced = snapshotById(external);
+        lastSyncedChecksum = checksum;
+        if (!conflicts.isEmpty()) {
+            // Write the local versions back right away so the other side sees them
+            try {
+                writeScheduleFile();
+            } catch (IOException e) {
+                JOptionPane.showMessageDialog(this, "Error saving schedule: " + e.getMessage());
+                e.printStackTrace();
+            }
+            reportConflicts(conflicts);
+        }
+    }
+
+    private void addExternalEvent(ScheduleEvent external) {
+        ScheduleEvent added = new ScheduleEvent(external);
+        events.add(added);
+        changeFeed.publish(ScheduleChange.added(added));
+    }
+
+    private static void copyContent(ScheduleEvent from, ScheduleEvent to) {
+        to.setName(from.getName());
+        to.setLocation(from.getLocation());
+        to.setStartTime(from.getStartTime());
+        to.setEndTime(from.getEndTime());
+        to.setColor(from.getColor());
+    }
+
+    // Monday of the sealed week holding the event with this id, or null when no segment holds it.
+    // The week the event falls in now is read first, the others only when it moved or is new.
+    // Segments read during one merge are kept in sealedWeeks, so each is read at most once.
+    private LocalDate findSealedWeek(String id, LocalDate monday,
+            Map<LocalDate, Map<String, ScheduleEvent>> sealedWeeks) {
+        if (archive.contains(monday) && sealedEvents(monday, sealedWeeks).containsKey(id)) return monday;
+        for (LocalDate week : archive.weeks()) {
+            if (sealedEvents(week, sealedWeeks).containsKey(id)) return week;
+        }
+        return null;
+    }
+
+    private Map<String, ScheduleEvent> sealedEvents(LocalDate monday,
+            Map<LocalDate, Map<String, ScheduleEvent>> sealedWeeks) {
+        return sealedWeeks.computeIfAbsent(monday, week -> {
+            try {
+                return snapshotById(archive.loadWeek(week));
+            } catch (IOException e) {
+                System.err.println("Error loading archived week " + week + ": " + e.getMessage());
+                return Map.of();
+            }
+        });
+    }
+
+    private void reportConflicts(List<ScheduleEvent> conflicts) {
+        StringBuilder message = new StringBuilder(
+            "These events were changed here and in the synced schedule file.\nThe local version was kept:\n");
+        for (ScheduleEvent event : conflicts) {
+            message.append(String.format("%n%s (%s)", event.getName(),
+                event.getStartTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"))));
+        }
+        JOptionPane.showMessageDialog(this, message.toString(), "Schedule Conflicts", JOptionPane.WARNING_MESSAGE);
+    }
+
+    private static boolean sameContent(ScheduleEvent a, ScheduleEvent b) {
+        if (a == null || b == null) return a == b;
+        return a.getName().equals(b.getName())
+            && a.getLocation().equals(b.getLocation())
+            && a.getStartTime().equals(b.getStartTime())
+            && a.getEndTime().equals(b.getEndTime())
+            && Objects.equals(a.getColor(), b.getColor());
+    }
+
+    private static Map<String, ScheduleEvent> snapshotById(List<ScheduleEvent> eventList) {
+        Map<String, ScheduleEvent> snapshot = new HashMap<>();
+        for (ScheduleEvent event : eventList) {
+            snapshot.put(event.getId(), new ScheduleEvent(event));
+        }
+        return snapshot;
+    }
+
+    // Subscribe another consumer of schedule changes, for example an exporter or metrics.
+    // The live event of a change may only be read on the event dispatch thread, a
+    // ScheduleChangeSubscriber running elsewhere gets the detached values only.
+    void subscribe(Flow.Subscriber<? super List<ScheduleChange>> subscriber) {
+        changeFeed.subscribe(subscriber);
+    }
+
+    // Record a change made to the events and hand it to the subscribers
+    private void publishChange(ScheduleChange change) {
+        unsavedChanges = true;
+        changeFeed.publish(change);
+    }
+
+    // Show the week containing the given date in the calender view
+    void showWeekOf(LocalDate date) {
+        LocalDate monday = mondayOf(date);
+        loadArchivedWeek(monday);
+        weekPanel.showWeek(monday);
+    }
+
+    static LocalDate mondayOf(LocalDate date) {
+        return date.minusDays(date.getDayOfWeek().getValue() - 1);
+    }
+
+    // Open the archive, seal the cold weeks and load the week shown at startup
+    private void openArchive() {
+        try {
+            archive = new ScheduleArchive(ARCHIVE_DIRECTORY);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Error opening schedule archive: " + e.getMessage());
+            e.printStackTrace();
+            archive = null;
+            return;
+        }
+        // The archive stays usable when only compaction fails, the cold events then stay hot until next time
+        try {
+            compactColdWeeks();
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Error archiving old weeks: " + e.getMessage());
+            e.printStackTrace();
+        }
+        loadArchivedWeek(mondayOf(currentMonday));
+    }
+
+    // Move the events of weeks older than the hot window into archive segments
+    private void compactColdWeeks() throws IOException {
+        LocalDate cutoff = archiveCutoff();
+        TreeMap<LocalDate, ArrayList<ScheduleEvent>> coldWeeks = new TreeMap<>();
+        for (ScheduleEvent event : events) {
+            LocalDate monday = mondayOf(event.getStartTime().toLocalDate());
+            if (monday.isBefore(cutoff)) {
+                coldWeeks.computeIfAbsent(monday, k -> new ArrayList<>()).add(event);
+            }
+        }
+        if (coldWeeks.isEmpty()) return;
+
+        for (Map.Entry<LocalDate, ArrayList<ScheduleEvent>> week : coldWeeks.entrySet()) {
+            // Events moved into an already sealed week join the existing segment. The hot copy replaces
+            // a sealed one with the same id, so a compaction repeated after a failed rewrite of the
+            // schedule file, or a thawed week whose segment could not be removed, is not duplicated
+            ArrayList<ScheduleEvent> weekEvents = new ArrayList<>(week.getValue());
+            if (archive.contains(week.getKey())) {
+                Set<String> hotIds = new HashSet<>();
+                for (ScheduleEvent event : weekEvents) {
+                    hotIds.add(event.getId());
+                }
+                for (ScheduleEvent sealed : archive.loadWeek(week.getKey())) {
+                    if (hotIds.add(sealed.getId())) {
+                        weekEvents.add(sealed);
+                    }
+                }
+            }
+            archive.seal(week.getKey(), weekEvents);
+        }
+
+        // Leave the sealed events out of the file, and only drop them from memory once it is written
+        for (Map.Entry<LocalDate, ArrayList<ScheduleEvent>> week : coldWeeks.entrySet()) {
+            for (ScheduleEvent event : week.getValue()) {
+                archivedEvents.put(event, week.getKey());
+            }
+        }
+        try {
+            writeScheduleFile();
+        } catch (IOException e) {
+            archivedEvents.clear();
+            throw e;
+        }
+        archivedEvents.clear();
+        events.removeIf(event -> mondayOf(event.getStartTime().toLocalDate()).isBefore(cutoff));
+    }
+
+    // Monday of the oldest week that stays in the hot schedule
+    private static LocalDate archiveCutoff() {
+        return mondayOf(LocalDate.now()).minusWeeks(ARCHIVE_AFTER_WEEKS);
+    }
+
+    // Load an archived week into memory when it is shown or an event is added to it
+    private void loadArchivedWeek(LocalDate monday) {
+        if (archive == null || !archive.contains(monday)) return;
+        readArchivedWeek(monday, eventIds());
+        unloadArchivedWeeks(Set.of(monday));
+    }
+
+    private void readArchivedWeek(LocalDate monday, Set<String> knownIds) {
+        if (thawedWeeks.contains(monday)) return;
+        if (loadedArchiveWeeks.remove(monday)) {
+            loadedArchiveWeeks.add(monday); // Now the most recently used
+            return;
+        }
+        try {
+            ArrayList<ScheduleEvent> weekEvents = archive.loadWeek(monday);
+            // An event that is already in memory under its id was thawed or is still in the file
+            weekEvents.removeIf(event -> !knownIds.add(event.getId()));
+            for (ScheduleEvent event : weekEvents) {
+                archivedEvents.put(event, monday);
+            }
+            events.addAll(weekEvents);
+            if (searchIndex != null) {
+                searchIndex.addAll(weekEvents);
+                busyTime.addAll(weekEvents);
+            }
+            loadedArchiveWeeks.add(monday);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Error loading archived week " + monday + ": " + e.getMessage());
+        }
+    }
+
+    // Unload the least recently used archived weeks over the limit, except the shown week and the kept ones
+    private void unloadArchivedWeeks(Set<LocalDate> keep) {
+        Set<LocalDate> unload = new HashSet<>();
+        int excess = loadedArchiveWeeks.size() - LOADED_ARCHIVE_WEEKS;
+        for (Iterator<LocalDate> weeks = loadedArchiveWeeks.iterator(); excess > 0 && weeks.hasNext();) {
+            LocalDate monday = weeks.next();
+            if (keep.contains(monday) || (weekPanel != null && monday.equals(weekPanel.getMonday()))) continue;
+            weeks.remove();
+            unload.add(monday);
+            excess--;
+        }
+        if (unload.isEmpty()) return;
+
+        events.removeIf(event -> {
+            LocalDate monday = archivedEvents.get(event);
+            if (monday == null || !unload.contains(monday)) return false;
+            archivedEvents.remove(event);
+            searchIndex.remove(event);
+            busyTime.remove(event);
+            return true;
+        });
+    }
+
+    // Booked minutes between the two hours of a date. Archived weeks that are not in memory
+    // are read from the summary sealed with them, all other days from the live aggregate.
+    int busyMinutes(LocalDate date, int fromHour, int toHour) {
+        LocalDate monday = mondayOf(date);
+        if (archive != null && archive.contains(monday)
+                && !loadedArchiveWeeks.contains(monday) && !thawedWeeks.contains(monday)) {
+            return archive.busyMinutes(date, fromHour, toHour);
+        }
+        return busyTime.busyMinutes(date, fromHour, toHour);
+    }
+
+    // Index the archived weeks that are not loaded, for searches that include the archive.
+    // Only the caller keeps the index, so the archive does not stay in memory after the search.
+    EventSearchIndex indexArchivedWeeks() {
+        EventSearchIndex index = new EventSearchIndex();
+        if (archive == null) return index;
+        Set<String> knownIds = eventIds();
+        List<LocalDate> unreadable = new ArrayList<>();
+        for (LocalDate monday : archive.weeks()) {
+            if (loadedArchiveWeeks.contains(monday) || thawedWeeks.contains(monday)) continue;
+            try {
+                for (ScheduleEvent event : archive.loadWeek(monday)) {
+                    if (knownIds.add(event.getId())) index.add(event);
                 }
+            } catch (IOException e) {
+                System.err.println("Error loading archived week " + monday + ": " + e.getMessage());
+                unreadable.add(monday);
             }
         }
+        if (!unreadable.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "These archived weeks could not be searched: " + unreadable);
+        }
+        return index;
+    }
+
+    private Set<String> eventIds() {
+        Set<String> ids = new HashSet<>();
+        for (ScheduleEvent event : events) {
+            ids.add(event.getId());
+        }
+        return ids;
+    }
+
+    // An archived event is changing, so its whole week becomes part of the hot schedule again
+    private void thawWeekOf(ScheduleEvent event) {
+        LocalDate monday = archivedEvents.get(event);
+        if (monday != null) {
+            thawWeek(monday);
+        }
+    }
+
+    // Move a loaded archived week back into the hot schedule, false when it is not loaded
+    private boolean thawWeek(LocalDate monday) {
+        if (thawedWeeks.contains(monday)) return true;
+        if (!loadedArchiveWeeks.remove(monday)) return false;
+        archivedEvents.values().removeIf(monday::equals);
+        thawedWeeks.add(monday);
+        return true;
+    }
+
+    // Validate the event
+    private boolean isValidEvent(ScheduleEvent newEvent) {
+        
+        // Duration and working hours check
+        String violation = workingHours.checkEventTimes(
+            newEvent.getStartTime(), newEvent.getEndTime());
+        if (violation != null) {
+            JOptionPane.showMessageDialog(this, violation);
+            return false;
+        }
 
         // Event Overlaping check 
         for (ScheduleEvent existing : events) {
             if (existing != newEvent && eventsOverlap(existing, newEvent)) {
                 long overlapMinutes = calculateOverlap(existing, newEvent);
-                if (overlapMinutes > 30) {
+                if (overlapMinutes > workingHours.getMaxOverlapMinutes()) {
                     JOptionPane.showMessageDialog(this, 
-                        "Events cannot overlap by more than 30 minutes");
+                        "Events cannot overlap by more than " 
+                        + workingHours.getMaxOverlapMinutes() + " minutes");
                     return false;
                 }
             }
@@ -127,10 +683,8 @@ class ScheduleManager extends JFrame {
 
      // Save the current schedule to a file
     public boolean saveSchedule() {
-        try (ObjectOutputStream oos = new ObjectOutputStream(
-                new FileOutputStream("src/scheduleData/schedule.dat"))) {
-            oos.writeObject(events);
-            oos.writeObject(currentMonday);
+        try {
+            writeScheduleFile();
             JOptionPane.showMessageDialog(this, "Schedule saved successfully.");
             return true;
         } catch (IOException e) {
@@ -140,37 +694,79 @@ class ScheduleManager extends JFrame {
         }
     }
 
+    // Write the hot events, archived weeks stay in their segments
+    private void writeScheduleFile() throws IOException {
+        ArrayList<ScheduleEvent> hotEvents = new ArrayList<>(events.size());
+        for (ScheduleEvent event : events) {
+            if (!archivedEvents.containsKey(event)) {
+                hotEvents.add(event);
+            }
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(hotEvents);
+            oos.writeObject(currentMonday);
+        }
+        try (FileOutputStream out = new FileOutputStream(SCHEDULE_FILE)) {
+            bytes.writeTo(out);
+        }
+        // Remember what was written so the file watcher can tell our writes from external ones.
+        // The watcher's check runs on this thread too, so it cannot see the file before this.
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        lastSyncedChecksum = crc.getValue();
+        lastSynced = snapshotById(hotEvents);
+        unsavedChanges = false;
+
+        // Only drop the segments of edited weeks once their events are safely in the file
+        for (LocalDate monday : thawedWeeks) {
+            archive.remove(monday);
+        }
+        thawedWeeks.clear();
+    }
+
      // Load the current schedule from the file
     private boolean loadSchedule() {
         try (ObjectInputStream ois = new ObjectInputStream(
-                new FileInputStream("src/scheduleData/schedule.dat"))) {
+                new FileInputStream(SCHEDULE_FILE))) {
             events = (ArrayList<ScheduleEvent>) ois.readObject();
             currentMonday = (LocalDate) ois.readObject();
+            lastSynced = snapshotById(events);
             return true;
         } catch (IOException | ClassNotFoundException e) {
             e.printStackTrace();
             return false;
         }
     }
-    
-    // Update an exsisting event
-    public void updateEvent(ScheduleEvent updatedEvent) {
-        for (int i = 0; i < events.size(); i++) {
-            if (events.get(i).equals(updatedEvent)) {
-                events.set(i, updatedEvent);
-                break;
-            }
+
+    // Read only the events from the file, used where no window is available
+    static ArrayList<ScheduleEvent> readEvents() throws IOException, ClassNotFoundException {
+        return readEvents(new FileInputStream(SCHEDULE_FILE));
+    }
+
+    @SuppressWarnings("unchecked")
+    static ArrayList<ScheduleEvent> readEvents(InputStream in) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream ois = new ObjectInputStream(in)) {
+            return (ArrayList<ScheduleEvent>) ois.readObject();
         }
-        weekPanel.repaint();
-        saveSchedule();
+    }
+    
+    // Update an exsisting event, previousValue is a copy taken before it was edited
+    public void updateEvent(ScheduleEvent updatedEvent, ScheduleEvent previousValue) {
+        thawWeekOf(updatedEvent);
+        publishChange(ScheduleChange.updated(updatedEvent, previousValue));
     }
     
     // Add a new event
     public void addNewEvent(ScheduleEvent newEvent) {
+        // The overlap check needs the events of the week even if it is archived
+        LocalDate monday = mondayOf(newEvent.getStartTime().toLocalDate());
+        loadArchivedWeek(monday);
         if (isValidEvent(newEvent)) {
+            // Like an edit, adding an event moves an archived week back into the hot schedule
+            thawWeek(monday);
             events.add(newEvent);
-            weekPanel.repaint();
-            saveSchedule();
+            publishChange(ScheduleChange.added(newEvent));
         }
     }
 
@@ -182,9 +778,9 @@ class ScheduleManager extends JFrame {
             JOptionPane.YES_NO_OPTION);
         
         if (confirm == JOptionPane.YES_OPTION) {
+            thawWeekOf(event);
             events.remove(event);
-            weekPanel.repaint();
-            saveSchedule();
+            publishChange(ScheduleChange.removed(event));
         }
     }
 
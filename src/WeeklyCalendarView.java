@@ -10,17 +10,24 @@ class WeeklyCalendarView extends JPanel {
     private LocalDate monday;
     private ArrayList<ScheduleEvent> events;
     private ScheduleManager mainFrame;
+    private WorkingHoursRules workingHours;
+    private int firstHour;
+    private int hourCount;
     private static final int HOUR_HEIGHT = 60;
     private static final int DAY_WIDTH = 150;
     private static final int HEADER_HEIGHT = 50; 
     private static final int TIME_COLUMN_WIDTH = 50;
     
-    public WeeklyCalendarView(LocalDate monday, ArrayList<ScheduleEvent> events, ScheduleManager mainFrame) {
+    public WeeklyCalendarView(LocalDate monday, ArrayList<ScheduleEvent> events, 
+            WorkingHoursRules workingHours, ScheduleManager mainFrame) {
         this.monday = monday;
         this.events = events;
         this.mainFrame = mainFrame;
+        this.workingHours = workingHours;
+        this.firstHour = workingHours.earliestHour();
+        this.hourCount = workingHours.latestHour() - firstHour;
         setPreferredSize(new Dimension(TIME_COLUMN_WIDTH + DAY_WIDTH * 7, 
-            HOUR_HEIGHT * 12 + HEADER_HEIGHT));
+            HOUR_HEIGHT * hourCount + HEADER_HEIGHT));
         
         // To handle clicks on the events in the calender view
         addMouseListener(new MouseAdapter() {
@@ -51,19 +58,24 @@ class WeeklyCalendarView extends JPanel {
     protected void paintComponent(Graphics comp) {
         super.paintComponent(comp);
         Graphics2D comp_ = (Graphics2D) comp;
+        paintWeek(comp_, monday, getWidth(), getHeight());
+        drawCurrentTimeLine(comp_);
+    }
+
+    // Paint a whole week, also used to render weeks off screen for export
+    void paintWeek(Graphics2D comp_, LocalDate weekMonday, int width, int height) {
         comp_.setRenderingHint(RenderingHints.KEY_ANTIALIASING, 
             RenderingHints.VALUE_ANTIALIAS_ON);
         
-        createCalenderGrid(comp_);
-        drawTimeIndicators(comp_);
-        displayScheduledEvents(comp_);
-        drawCurrentTimeLine(comp_);
+        createCalenderGrid(comp_, weekMonday, width, height);
+        drawTimeIndicators(comp_, width);
+        displayScheduledEvents(comp_, weekMonday);
     }
 
     // Create the calender backgroud
-    private void createCalenderGrid(Graphics2D grid) {
+    private void createCalenderGrid(Graphics2D grid, LocalDate weekMonday, int width, int height) {
         grid.setColor(new Color(240, 240, 240));
-        grid.fillRect(0, 0, getWidth(), HEADER_HEIGHT);
+        grid.fillRect(0, 0, width, HEADER_HEIGHT);
         grid.setColor(Color.BLACK);
 
         // Headers for each day
@@ -71,7 +83,7 @@ class WeeklyCalendarView extends JPanel {
         grid.setFont(headerFont);
         
         for (int i = 0; i < 7; i++) {
-            LocalDate date = monday.plusDays(i);
+            LocalDate date = weekMonday.plusDays(i);
             int x = TIME_COLUMN_WIDTH + (i * DAY_WIDTH);
             
             // For day name
@@ -83,34 +95,44 @@ class WeeklyCalendarView extends JPanel {
             String dateStr = date.format(DateTimeFormatter.ofPattern("MM/dd"));
             grid.drawString(dateStr, x + 5, 40);
 
-            grid.drawLine(x, 0, x, getHeight());
-
-            // Highlight weekend
-            if (i >= 5) {  
-                grid.setColor(new Color(255, 240, 240, 100));
-                grid.fillRect(x, HEADER_HEIGHT, DAY_WIDTH, getHeight() - HEADER_HEIGHT);
-                grid.setColor(Color.BLACK);
+            grid.drawLine(x, 0, x, height);
+
+            // Highlight the hours where no events are allowed, one rectangle per closed run of the day
+            grid.setColor(new Color(255, 240, 240, 100));
+            int gridStart = firstHour * 60;
+            int gridEnd = (firstHour + hourCount) * 60;
+            if (workingHours.isBlackoutDate(date)) {
+                grid.fillRect(x, minuteToY(gridStart), DAY_WIDTH, minuteToY(gridEnd) - minuteToY(gridStart));
+            } else {
+                DayOfWeek day = date.getDayOfWeek();
+                int runStart = workingHours.nextClosedMinute(day, gridStart);
+                while (runStart < gridEnd) {
+                    int runEnd = Math.min(gridEnd, workingHours.nextWorkingMinute(day, runStart));
+                    grid.fillRect(x, minuteToY(runStart), DAY_WIDTH, minuteToY(runEnd) - minuteToY(runStart));
+                    runStart = workingHours.nextClosedMinute(day, runEnd);
+                }
             }
+            grid.setColor(Color.BLACK);
         }
 
-        grid.drawLine(getWidth() - 1, 0, getWidth() - 1, getHeight());
+        grid.drawLine(width - 1, 0, width - 1, height);
 
         // For grid hour lines
         grid.setColor(new Color(200, 200, 200));
-        for (int i = 0; i <= 12; i++) {
+        for (int i = 0; i <= hourCount; i++) {
             int y = i * HOUR_HEIGHT + HEADER_HEIGHT;
-            grid.drawLine(TIME_COLUMN_WIDTH, y, getWidth(), y);
+            grid.drawLine(TIME_COLUMN_WIDTH, y, width, y);
         }
     }
 
     // For the time indicators on the left side of the calender
-    private void drawTimeIndicators(Graphics2D gridIn) {
+    private void drawTimeIndicators(Graphics2D gridIn, int width) {
         gridIn.setColor(Color.BLACK);
         Font timeFont = new Font("Arial", Font.PLAIN, 10);
         gridIn.setFont(timeFont);
         
-        for (int i = 0; i <= 12; i++) {
-            int hour = i + 8;  // From 8am
+        for (int i = 0; i <= hourCount; i++) {
+            int hour = i + firstHour;
             int y = i * HOUR_HEIGHT + HEADER_HEIGHT;
             
             // For hour marks
@@ -118,23 +140,23 @@ class WeeklyCalendarView extends JPanel {
 
             gridIn.setColor(new Color(200, 200, 200));
             int halfHourY = y + (HOUR_HEIGHT / 2);
-            gridIn.drawLine(TIME_COLUMN_WIDTH, halfHourY, getWidth(), halfHourY);
+            gridIn.drawLine(TIME_COLUMN_WIDTH, halfHourY, width, halfHourY);
             gridIn.setColor(Color.BLACK);
         }
     }
 
     // To display the sheduled events on the calender view
-    private void displayScheduledEvents(Graphics2D gridEv) {
+    private void displayScheduledEvents(Graphics2D gridEv, LocalDate weekMonday) {
         for (ScheduleEvent event : events) {
             LocalDateTime startTime = event.getStartTime();
             LocalDateTime endTime = event.getEndTime();
             
             // Skip the event if it is not in current week
-            if (!isEventWithinCurrentWeek(event)) continue;
+            if (!isEventWithinWeek(event, weekMonday)) continue;
             
             int day = startTime.getDayOfWeek().getValue() - 1;
-            int startHour = startTime.getHour() - 8;
-            int endHour = endTime.getHour() - 8;
+            int startHour = startTime.getHour() - firstHour;
+            int endHour = endTime.getHour() - firstHour;
             int startMinute = startTime.getMinute();
             int endMinute = endTime.getMinute();
             
@@ -168,9 +190,8 @@ class WeeklyCalendarView extends JPanel {
     // To show the current time
     private void drawCurrentTimeLine(Graphics2D gridLi) {
         LocalDateTime now = LocalDateTime.now();
-        if (isTimeInWorkHours(now)) {
-            int day = now.getDayOfWeek().getValue() - 1;
-            int hour = now.getHour() - 8;
+        if (workingHours.isTimeInWorkHours(now)) {
+            int hour = now.getHour() - firstHour;
             int minute = now.getMinute();
             
             int y = hour * HOUR_HEIGHT + (minute * HOUR_HEIGHT / 60) + HEADER_HEIGHT;
@@ -184,24 +205,36 @@ class WeeklyCalendarView extends JPanel {
         }
     }
 
-    // To check the working hours
-    private boolean isTimeInWorkHours(LocalDateTime time) {
-        int dayOfWeek = time.getDayOfWeek().getValue();
-        int hour = time.getHour();
-        
-        if (dayOfWeek <= 5) { 
-            return hour >= 8 && hour < 20;
-        } else if (dayOfWeek == 6) {
-            return hour >= 8 && hour < 15;
+    public LocalDate getMonday() {
+        return monday;
+    }
+
+    // To switch the view to another week
+    public void showWeek(LocalDate monday) {
+        this.monday = monday;
+        repaint();
+    }
+
+    // To repaint only the columns of the given days that are in the shown week
+    public void repaintDays(Collection<LocalDate> dates) {
+        for (LocalDate date : dates) {
+            long day = date.toEpochDay() - monday.toEpochDay();
+            if (day >= 0 && day < 7) {
+                repaint(TIME_COLUMN_WIDTH + (int) day * DAY_WIDTH, 0, DAY_WIDTH + 1, getHeight());
+            }
         }
-        return false; 
+    }
+
+    // To convert a minute of the day to a position on the grid
+    private int minuteToY(int minuteOfDay) {
+        return (minuteOfDay - firstHour * 60) * HOUR_HEIGHT / 60 + HEADER_HEIGHT;
     }
 
     // To check the event is within the week
-    private boolean isEventWithinCurrentWeek(ScheduleEvent event) {
+    private boolean isEventWithinWeek(ScheduleEvent event, LocalDate weekMonday) {
         LocalDate eventDate = event.getStartTime().toLocalDate();
-        LocalDate weekEnd = monday.plusDays(6);
-        return !eventDate.isBefore(monday) && !eventDate.isAfter(weekEnd);
+        LocalDate weekEnd = weekMonday.plusDays(6);
+        return !eventDate.isBefore(weekMonday) && !eventDate.isAfter(weekEnd);
     }
 
     // To check if clicked in the calender view area
@@ -224,22 +257,16 @@ class WeeklyCalendarView extends JPanel {
 
     // To open the event details
     private void openEventDetailsForm(ScheduleEvent event) {
+        // The form saves or deletes through the schedule manager, which repaints the changed days
         EventDetailsForm dialog = new EventDetailsForm((ScheduleManager) SwingUtilities.getWindowAncestor(this), event);
         dialog.setVisible(true);
-        if (dialog.getEvent() != null) { // Check if the evet is modified
-            events.remove(event);
-            events.add(dialog.getEvent());
-            repaint();
-        } else if (!events.contains(event)) { // Check if the event is deleted
-            repaint();
-        }
     }
 
     private ScheduleEvent findEventAt(int x, int y) {
         if (x < TIME_COLUMN_WIDTH || y < HEADER_HEIGHT) return null;
         
         int day = (x - TIME_COLUMN_WIDTH) / DAY_WIDTH;
-        double hour = (double)(y - HEADER_HEIGHT) / HOUR_HEIGHT + 8;
+        double hour = (double)(y - HEADER_HEIGHT) / HOUR_HEIGHT + firstHour;
         
         LocalDateTime clickTime = monday.plusDays(day)
             .atTime((int)hour, (int)((hour % 1) * 60));
@@ -285,12 +312,7 @@ class WeeklyCalendarView extends JPanel {
         contentPanel.add(new JScrollPane(eventList), BorderLayout.CENTER);
 
         // To add a label showing work hours when sheduling
-        String workHours = date.getDayOfWeek() == DayOfWeek.SATURDAY ? 
-            "Work Hours: 8:00 AM - 3:00 PM" :
-            date.getDayOfWeek() == DayOfWeek.SUNDAY ?
-            "No Events Allowed" : "Work Hours: 8:00 AM - 8:00 PM";
-        
-        JLabel hoursLabel = new JLabel(workHours);
+        JLabel hoursLabel = new JLabel(workingHours.describeWorkHours(date));
         hoursLabel.setHorizontalAlignment(JLabel.CENTER);
         contentPanel.add(hoursLabel, BorderLayout.NORTH);
 
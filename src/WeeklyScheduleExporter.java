@@ -0,0 +1,131 @@
+import java.awt.*;
+import java.awt.image.*;
+import java.io.*;
+import java.time.*;
+import java.time.format.*;
+import java.util.*;
+import java.util.concurrent.*;
+import javax.imageio.*;
+
+// Class to render a range of weeks off screen and write them as PNG files or a PDF
+class WeeklyScheduleExporter {
+    private final WeeklyCalendarView renderer;
+    private final int width;
+    private final int height;
+
+    public WeeklyScheduleExporter(Collection<ScheduleEvent> events, WorkingHoursRules workingHours) {
+        // The view is only used for its painting code. It gets its own copy of every event,
+        // so the schedule can be edited while the weeks render in the background
+        ArrayList<ScheduleEvent> copies = new ArrayList<>(events.size());
+        for (ScheduleEvent event : events) {
+            copies.add(new ScheduleEvent(event.getName(), event.getLocation(),
+                event.getStartTime(), event.getEndTime(), event.getColor()));
+        }
+        this.renderer = new WeeklyCalendarView(LocalDate.now(), copies, workingHours, null);
+        Dimension size = renderer.getPreferredSize();
+        this.width = size.width;
+        this.height = size.height;
+    }
+
+    // Write one PNG per week into the directory, named after the week's Monday
+    public void exportPng(LocalDate firstMonday, int weeks, File directory) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create directory " + directory);
+        }
+        renderWeeks(firstMonday, weeks, (monday, image) -> {
+            File file = new File(directory, "week-" + monday.format(DateTimeFormatter.ISO_LOCAL_DATE) + ".png");
+            if (!ImageIO.write(image, "png", file)) {
+                throw new IOException("No PNG writer available");
+            }
+        });
+    }
+
+    // Write all weeks as pages of one PDF file
+    public void exportPdf(LocalDate firstMonday, int weeks, File file) throws IOException {
+        try (PdfImageWriter pdf = new PdfImageWriter(file)) {
+            renderWeeks(firstMonday, weeks, (monday, image) -> pdf.addPage(image));
+        }
+    }
+
+    // Render the weeks in parallel, a batch per round so only a few images are in memory at once,
+    // and hand them to the writer in order
+    private void renderWeeks(LocalDate firstMonday, int weeks, WeekWriter writer) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int batchStart = 0; batchStart < weeks; batchStart += threads) {
+                ArrayList<Future<BufferedImage>> batch = new ArrayList<>();
+                for (int i = batchStart; i < Math.min(weeks, batchStart + threads); i++) {
+                    LocalDate monday = firstMonday.plusWeeks(i);
+                    batch.add(pool.submit(() -> renderWeek(monday)));
+                }
+                for (int i = 0; i < batch.size(); i++) {
+                    writer.write(firstMonday.plusWeeks(batchStart + i), batch.get(i).get());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error rendering week: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private BufferedImage renderWeek(LocalDate monday) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            renderer.paintWeek(graphics, monday, width, height);
+        } finally {
+            graphics.dispose();
+        }
+        return image;
+    }
+
+    private interface WeekWriter {
+        void write(LocalDate monday, BufferedImage image) throws IOException;
+    }
+
+    // Export from the command line without a display:
+    // --export <monday YYYY-MM-DD> <weeks> <output.pdf | output directory>
+    public static void runFromCommandLine(String[] args) {
+        if (args.length != 4) {
+            System.err.println("Usage: --export <monday YYYY-MM-DD> <weeks> <output.pdf | output directory>");
+            System.exit(1);
+        }
+        try {
+            LocalDate monday = ScheduleManager.mondayOf(LocalDate.parse(args[1]));
+            int weeks = Integer.parseInt(args[2]);
+            if (weeks < 1) throw new NumberFormatException("weeks must be at least 1");
+            File output = new File(args[3]);
+
+            // Archived weeks in the range are read from their segments, without touching the archive
+            ArrayList<ScheduleEvent> events = ScheduleManager.readEvents();
+            ScheduleArchive archive = ScheduleArchive.openReadOnly(ScheduleManager.ARCHIVE_DIRECTORY);
+            for (LocalDate week : archive.weeksBetween(monday, monday.plusWeeks(weeks - 1))) {
+                events.addAll(archive.loadWeek(week));
+            }
+
+            WeeklyScheduleExporter exporter = new WeeklyScheduleExporter(
+                events, WorkingHoursRules.load(ScheduleManager.RULES_FILE));
+            long start = System.nanoTime();
+            if (output.getName().toLowerCase(Locale.ROOT).endsWith(".pdf")) {
+                exporter.exportPdf(monday, weeks, output);
+            } else {
+                exporter.exportPng(monday, weeks, output);
+            }
+            System.out.printf("Exported %d week(s) to %s in %d ms%n",
+                weeks, output, (System.nanoTime() - start) / 1_000_000);
+        } catch (DateTimeException | IllegalArgumentException e) {
+            System.err.println("Invalid argument: " + e.getMessage());
+            System.exit(1);
+        } catch (IOException | ClassNotFoundException e) {
+            System.err.println("Error exporting schedule: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -3,6 +3,11 @@ import javax.swing.*;
 // Main class to start the application
 public class WeeklyScheduler {
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--export")) {
+            System.setProperty("java.awt.headless", "true");
+            WeeklyScheduleExporter.runFromCommandLine(args);
+            return;
+        }
         SwingUtilities.invokeLater(() -> {
             new ScheduleManager().setVisible(true);
         });
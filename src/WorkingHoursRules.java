@@ -0,0 +1,307 @@
+import java.io.*;
+import java.nio.file.*;
+import java.time.*;
+import java.time.format.*;
+import java.util.*;
+
+// Class holding the working hours and duration rules for scheduling events.
+// The rules are fixed once loaded, every view and the export share one instance.
+class WorkingHoursRules {
+    private static final String PROPERTY_PREFIX = "scheduler.";
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int WORDS_PER_DAY = (MINUTES_PER_DAY + 63) / 64;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("h:mm a", Locale.US);
+
+    // One bit per minute of the day, indexed by day of week (Monday = 0)
+    private final long[][] dayMasks = new long[7][WORDS_PER_DAY];
+    private final Set<LocalDate> blackoutDates = new HashSet<>();
+    private int minDurationMinutes;
+    private int maxDurationMinutes;
+    private int maxOverlapMinutes;
+
+    public WorkingHoursRules(int minDurationMinutes, int maxDurationMinutes, int maxOverlapMinutes) {
+        if (minDurationMinutes < 0 || maxDurationMinutes < minDurationMinutes || maxOverlapMinutes < 0) {
+            throw new IllegalArgumentException("Invalid duration or overlap limits");
+        }
+        this.minDurationMinutes = minDurationMinutes;
+        this.maxDurationMinutes = maxDurationMinutes;
+        this.maxOverlapMinutes = maxOverlapMinutes;
+    }
+
+    // The rules the scheduler has always used
+    public static WorkingHoursRules defaultRules() {
+        WorkingHoursRules rules = new WorkingHoursRules(30, 180, 30);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day.getValue() <= 5) {
+                rules.addWindow(day, LocalTime.of(8, 0), LocalTime.of(20, 0));
+            }
+        }
+        rules.addWindow(DayOfWeek.SATURDAY, LocalTime.of(8, 0), LocalTime.of(15, 0));
+        return rules;
+    }
+
+    // Load the rules from a properties file, scheduler.* system properties override the file
+    // and anything set in neither keeps the default rules. Keys:
+    //   hours.<monday..sunday> = HH:mm-HH:mm[,HH:mm-HH:mm...] or closed (24:00 means end of day)
+    //   blackoutDates = YYYY-MM-DD[,YYYY-MM-DD...]
+    //   minDurationMinutes, maxDurationMinutes, maxOverlapMinutes
+    public static WorkingHoursRules load(String file) throws IOException {
+        Properties settings = new Properties();
+        Path path = Paths.get(file);
+        if (Files.exists(path)) {
+            try (Reader in = Files.newBufferedReader(path)) {
+                settings.load(in);
+            }
+        }
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith(PROPERTY_PREFIX)) {
+                settings.setProperty(name.substring(PROPERTY_PREFIX.length()), System.getProperty(name));
+            }
+        }
+
+        WorkingHoursRules defaults = defaultRules();
+        WorkingHoursRules rules = new WorkingHoursRules(
+            intSetting(settings, "minDurationMinutes", defaults.minDurationMinutes),
+            intSetting(settings, "maxDurationMinutes", defaults.maxDurationMinutes),
+            intSetting(settings, "maxOverlapMinutes", defaults.maxOverlapMinutes));
+        for (DayOfWeek day : DayOfWeek.values()) {
+            String key = "hours." + day.name().toLowerCase(Locale.ROOT);
+            String hours = settings.getProperty(key);
+            if (hours == null) {
+                rules.dayMasks[day.getValue() - 1] = defaults.dayMasks[day.getValue() - 1].clone();
+            } else if (!hours.trim().equalsIgnoreCase("closed")) {
+                for (String window : hours.split(",")) {
+                    String[] times = window.trim().split("-");
+                    if (times.length != 2) throw invalidSetting(key, hours, null);
+                    try {
+                        rules.addWindow(day, parseTime(times[0]), parseTime(times[1]));
+                    } catch (DateTimeException | IllegalArgumentException e) {
+                        throw invalidSetting(key, hours, e);
+                    }
+                }
+            }
+        }
+        String dates = settings.getProperty("blackoutDates", "");
+        for (String date : dates.split(",")) {
+            if (date.isBlank()) continue;
+            try {
+                rules.blackoutDates.add(LocalDate.parse(date.trim()));
+            } catch (DateTimeException e) {
+                throw invalidSetting("blackoutDates", dates, e);
+            }
+        }
+        return rules;
+    }
+
+    private static int intSetting(Properties settings, String key, int defaultValue) {
+        String value = settings.getProperty(key);
+        if (value == null) return defaultValue;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw invalidSetting(key, value, e);
+        }
+    }
+
+    private static LocalTime parseTime(String text) {
+        return text.trim().equals("24:00") ? LocalTime.MIDNIGHT : LocalTime.parse(text.trim());
+    }
+
+    private static IllegalArgumentException invalidSetting(String key, String value, Exception cause) {
+        return new IllegalArgumentException("Invalid working hours setting " + key + "=" + value, cause);
+    }
+
+    // Open an extra window on a day, end is exclusive and LocalTime.MIDNIGHT means end of day
+    private void addWindow(DayOfWeek day, LocalTime start, LocalTime end) {
+        int from = toMinute(start);
+        int to = end.equals(LocalTime.MIDNIGHT) ? MINUTES_PER_DAY : toMinute(end);
+        if (to <= from) throw new IllegalArgumentException("Window must end after it starts");
+        setBits(dayMasks[day.getValue() - 1], from, to);
+    }
+
+    public boolean isBlackoutDate(LocalDate date) { return blackoutDates.contains(date); }
+
+    public int getMinDurationMinutes() { return minDurationMinutes; }
+    public int getMaxDurationMinutes() { return maxDurationMinutes; }
+    public int getMaxOverlapMinutes() { return maxOverlapMinutes; }
+
+    // Check the duration and working hours of an event, returns the violation or null
+    public String checkEventTimes(LocalDateTime start, LocalDateTime end) {
+        long durationMinutes = Duration.between(start, end).toMinutes();
+        if (durationMinutes < minDurationMinutes || durationMinutes > maxDurationMinutes) {
+            return String.format("Event duration must be between %s minimum and %s maximum.",
+                formatDuration(minDurationMinutes), formatDuration(maxDurationMinutes));
+        }
+
+        LocalDate date = start.toLocalDate();
+        String dayName = date.getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.US);
+        if (!isOpen(date)) {
+            return isBlackoutDate(date) ? "No events allowed on " + date : "No events allowed on " + dayName;
+        }
+        if (!isWithinWorkHours(start, end)) {
+            return dayName + " events must be within " + describeWindows(date);
+        }
+        return null;
+    }
+
+    // Check that every minute of [start, end) falls inside the working hours of its day
+    public boolean isWithinWorkHours(LocalDateTime start, LocalDateTime end) {
+        LocalDate date = start.toLocalDate();
+        if (isBlackoutDate(date)) return false;
+
+        int from = toMinute(start.toLocalTime());
+        int to;
+        if (end.toLocalDate().equals(date)) {
+            to = toMinute(end.toLocalTime());
+        } else if (end.equals(date.plusDays(1).atStartOfDay())) {
+            to = MINUTES_PER_DAY;
+        } else {
+            return false;
+        }
+        return to > from && allBitsSet(dayMasks[date.getDayOfWeek().getValue() - 1], from, to);
+    }
+
+    public boolean isTimeInWorkHours(LocalDateTime time) {
+        return isWorkingMinute(time.toLocalDate(), toMinute(time.toLocalTime()));
+    }
+
+    public boolean isWorkingMinute(LocalDate date, int minuteOfDay) {
+        if (minuteOfDay < 0 || minuteOfDay >= MINUTES_PER_DAY || isBlackoutDate(date)) return false;
+        long word = dayMasks[date.getDayOfWeek().getValue() - 1][minuteOfDay >>> 6];
+        return (word & (1L << minuteOfDay)) != 0;
+    }
+
+    // Number of working minutes of the date within [fromMinute, toMinute)
+    public int workingMinutes(LocalDate date, int fromMinute, int toMinute) {
+        int from = Math.max(0, fromMinute);
+        int to = Math.min(MINUTES_PER_DAY, toMinute);
+        if (to <= from || isBlackoutDate(date)) return 0;
+        long[] mask = dayMasks[date.getDayOfWeek().getValue() - 1];
+        int count = 0;
+        for (int word = from >>> 6; word <= (to - 1) >>> 6; word++) {
+            count += Long.bitCount(mask[word] & rangeBits(word, from, to));
+        }
+        return count;
+    }
+
+    // True when at least one minute of the date can be booked
+    public boolean isOpen(LocalDate date) {
+        return !isBlackoutDate(date) && firstWorkingMinute(date.getDayOfWeek()) >= 0;
+    }
+
+    // First working minute of a weekday, or -1 if the day is closed
+    public int firstWorkingMinute(DayOfWeek day) {
+        long[] mask = dayMasks[day.getValue() - 1];
+        for (int i = 0; i < WORDS_PER_DAY; i++) {
+            if (mask[i] != 0) return (i << 6) + Long.numberOfTrailingZeros(mask[i]);
+        }
+        return -1;
+    }
+
+    // Minute after the last working minute of a weekday, or -1 if the day is closed
+    public int endOfWorkingMinutes(DayOfWeek day) {
+        long[] mask = dayMasks[day.getValue() - 1];
+        for (int i = WORDS_PER_DAY - 1; i >= 0; i--) {
+            if (mask[i] != 0) return (i << 6) + 64 - Long.numberOfLeadingZeros(mask[i]);
+        }
+        return -1;
+    }
+
+    // Next working minute of a weekday at or after fromMinute, or the end of the day if there is none.
+    // Together with nextClosedMinute this walks the open and closed runs a mask word at a time.
+    public int nextWorkingMinute(DayOfWeek day, int fromMinute) {
+        return nextBit(dayMasks[day.getValue() - 1], Math.max(0, fromMinute), true);
+    }
+
+    // Next closed minute of a weekday at or after fromMinute, or the end of the day if there is none
+    public int nextClosedMinute(DayOfWeek day, int fromMinute) {
+        return nextBit(dayMasks[day.getValue() - 1], Math.max(0, fromMinute), false);
+    }
+
+    // Earliest hour any day opens, used as the top of the calender grid
+    public int earliestHour() {
+        int earliest = MINUTES_PER_DAY;
+        for (DayOfWeek day : DayOfWeek.values()) {
+            int first = firstWorkingMinute(day);
+            if (first >= 0) earliest = Math.min(earliest, first);
+        }
+        return earliest == MINUTES_PER_DAY ? 0 : earliest / 60;
+    }
+
+    // Hour after the latest any day closes, used as the bottom of the calender grid
+    public int latestHour() {
+        int latest = -1;
+        for (DayOfWeek day : DayOfWeek.values()) {
+            latest = Math.max(latest, endOfWorkingMinutes(day));
+        }
+        return latest < 0 ? 24 : (latest + 59) / 60;
+    }
+
+    // Readable work hours of a date for labels
+    public String describeWorkHours(LocalDate date) {
+        if (!isOpen(date)) return "No Events Allowed";
+        return "Work Hours: " + describeWindows(date);
+    }
+
+    private String describeWindows(LocalDate date) {
+        long[] mask = dayMasks[date.getDayOfWeek().getValue() - 1];
+        StringJoiner windows = new StringJoiner(", ");
+        int minute = nextBit(mask, 0, true);
+        while (minute < MINUTES_PER_DAY) {
+            int end = nextBit(mask, minute, false);
+            windows.add(formatMinute(minute) + " - " + formatMinute(end));
+            minute = nextBit(mask, end, true);
+        }
+        return windows.toString();
+    }
+
+    // Index of the next minute whose bit equals the given value, or MINUTES_PER_DAY
+    private static int nextBit(long[] mask, int from, boolean set) {
+        int word = from >>> 6;
+        if (word >= WORDS_PER_DAY) return MINUTES_PER_DAY;
+        long bits = (set ? mask[word] : ~mask[word]) & (-1L << from);
+        while (true) {
+            if (bits != 0) {
+                return Math.min(MINUTES_PER_DAY, (word << 6) + Long.numberOfTrailingZeros(bits));
+            }
+            if (++word == WORDS_PER_DAY) return MINUTES_PER_DAY;
+            bits = set ? mask[word] : ~mask[word];
+        }
+    }
+
+    private static void setBits(long[] mask, int from, int to) {
+        for (int word = from >>> 6; word <= (to - 1) >>> 6; word++) {
+            mask[word] |= rangeBits(word, from, to);
+        }
+    }
+
+    private static boolean allBitsSet(long[] mask, int from, int to) {
+        for (int word = from >>> 6; word <= (to - 1) >>> 6; word++) {
+            long bits = rangeBits(word, from, to);
+            if ((mask[word] & bits) != bits) return false;
+        }
+        return true;
+    }
+
+    // Bits of the given word covered by the minute range [from, to)
+    private static long rangeBits(int word, int from, int to) {
+        int lo = Math.max(from, word << 6) - (word << 6);
+        int hi = Math.min(to, (word + 1) << 6) - (word << 6);
+        long upper = hi == 64 ? -1L : (1L << hi) - 1;
+        return upper & (-1L << lo);
+    }
+
+    private static int toMinute(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static String formatMinute(int minute) {
+        return minute >= MINUTES_PER_DAY ? "12:00 AM"
+            : LocalTime.of(minute / 60, minute % 60).format(TIME_FORMAT);
+    }
+
+    private static String formatDuration(int minutes) {
+        if (minutes % 60 != 0) return minutes + " minutes";
+        return minutes == 60 ? "1 hour" : (minutes / 60) + " hours";
+    }
+}